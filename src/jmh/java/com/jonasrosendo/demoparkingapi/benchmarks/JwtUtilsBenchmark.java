@@ -0,0 +1,85 @@
+package com.jonasrosendo.demoparkingapi.benchmarks;
+
+import com.jonasrosendo.demoparkingapi.configs.TariffProperties;
+import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
+import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import com.jonasrosendo.demoparkingapi.jwt.JwtToken;
+import com.jonasrosendo.demoparkingapi.jwt.JwtTokenVerifier;
+import com.jonasrosendo.demoparkingapi.jwt.JwtUtils;
+import com.jonasrosendo.demoparkingapi.jwt.ReceiptTokens;
+import com.jonasrosendo.demoparkingapi.services.TariffEngine;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// token issued at login and verified on every authenticated request, and the receipt token issued at check-in
+// mvn -P benchmarks test-compile exec:exec -Djmh.args=JwtUtilsBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private String bearerToken;
+    private CustomerHasSlot customerHasSlot;
+    private JwtTokenVerifier verifier;
+    private ReceiptTokens receiptTokens;
+
+    @Setup
+    public void setUp() {
+        bearerToken = JwtUtils.JWT_BEARER + JwtUtils.createToken(101L, "ana@email.com", "CUSTOMER").getToken();
+        verifier = new JwtTokenVerifier();
+        receiptTokens = new ReceiptTokens("", "", true, 7, new TariffEngine(new TariffProperties()), Clock.systemUTC());
+
+        ParkingSlot parkingSlot = new ParkingSlot();
+        parkingSlot.setCode("A-01");
+        customerHasSlot = new CustomerHasSlot();
+        customerHasSlot.setReceipt("0C3Q9T2K8Z001");
+        customerHasSlot.setCarPlate("FIT-2020");
+        customerHasSlot.setCheckIn(LocalDateTime.of(2024, 3, 10, 18, 7));
+        customerHasSlot.setParkingSlot(parkingSlot);
+    }
+
+    @Benchmark
+    public JwtToken createToken() {
+        return JwtUtils.createToken(101L, "ana@email.com", "CUSTOMER");
+    }
+
+    // what JwtAuthorizationFilter does per request
+    @Benchmark
+    public String verify() {
+        return verifier.verify(bearerToken).getSubject();
+    }
+
+    // previous filter path for reference: a parser built and the signature checked twice
+    @Benchmark
+    public String isTokenValidThenGetUsernameUncached() {
+        Key key = Keys.hmacShaKeyFor(JwtUtils.SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+        String token = bearerToken.substring(JwtUtils.JWT_BEARER.length());
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        key = Keys.hmacShaKeyFor(JwtUtils.SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String createReceiptToken() {
+        return receiptTokens.issue(customerHasSlot);
+    }
+}
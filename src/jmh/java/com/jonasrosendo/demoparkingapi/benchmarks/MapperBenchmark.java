@@ -0,0 +1,261 @@
+package com.jonasrosendo.demoparkingapi.benchmarks;
+
+import com.jonasrosendo.demoparkingapi.configs.TariffProperties;
+import com.jonasrosendo.demoparkingapi.entities.Customer;
+import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
+import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import com.jonasrosendo.demoparkingapi.entities.User;
+import com.jonasrosendo.demoparkingapi.services.ParkingLotService;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotEventBus;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotOccupancyService;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotService;
+import com.jonasrosendo.demoparkingapi.services.TariffSimulationService;
+import com.jonasrosendo.demoparkingapi.web.dtos.customer.CustomerCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.CustomerHasSlotBatchCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.CustomerHasSlotCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotBulkCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotRangeDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.TariffDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.user.UserCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.mappers.CustomerHasSlotMapper;
+import com.jonasrosendo.demoparkingapi.web.mappers.CustomerMapper;
+import com.jonasrosendo.demoparkingapi.web.mappers.ParkingSlotMapper;
+import com.jonasrosendo.demoparkingapi.web.mappers.TariffMapper;
+import com.jonasrosendo.demoparkingapi.web.mappers.UserMapper;
+import com.jonasrosendo.demoparkingapi.web.vos.customer.CustomerResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CheckoutBatchResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CustomerHasSlotBatchResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CustomerHasSlotResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ParkingSlotBulkResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ParkingSlotOccupancyResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ParkingSlotResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.TariffSimulationResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.user.UserResponseVO;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// every static mapper of web.mappers, batch mappers with 100 items. The modelMapper* benchmarks are the previous
+// new ModelMapper().map(...) per call, for reference
+// mvn -P benchmarks test-compile exec:exec -Djmh.args=MapperBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    // signing is measured in JwtUtilsBenchmark, here only the mapping
+    private static final String RECEIPT_TOKEN = "receipt-token";
+
+    private UserCreateDTO userCreateDTO;
+    private User user;
+    private List<User> users;
+    private CustomerCreateDTO customerCreateDTO;
+    private Customer customer;
+    private ParkingSlotCreateDTO parkingSlotCreateDTO;
+    private ParkingSlot parkingSlot;
+    private ParkingSlotBulkCreateDTO bulkCreateDTO;
+    private List<ParkingSlotService.BulkResult> bulkResults;
+    private ParkingSlotEventBus.SlotStatusEvent slotStatusEvent;
+    private ParkingSlotOccupancyService.Occupancy occupancy;
+    private CustomerHasSlotCreateDTO customerHasSlotCreateDTO;
+    private CustomerHasSlot customerHasSlot;
+    private CustomerHasSlotBatchCreateDTO batchCreateDTO;
+    private List<ParkingLotService.CheckInResult> checkInResults;
+    private List<ParkingLotService.CheckoutResult> checkoutResults;
+    private TariffDTO tariffDTO;
+    private TariffSimulationService.TariffSimulation simulation;
+
+    @Setup
+    public void setUp() {
+        userCreateDTO = new UserCreateDTO("ana@email.com", "123456");
+        user = new User();
+        user.setId(101L);
+        user.setUsername("ana@email.com");
+        user.setRole(User.Role.ROLE_CUSTOMER);
+        users = IntStream.range(0, BATCH_SIZE).mapToObj(i -> user).toList();
+
+        customerCreateDTO = new CustomerCreateDTO("Ana Silva", "94140627000");
+        customer = new Customer();
+        customer.setId(10L);
+        customer.setName("Ana Silva");
+        customer.setCpf("94140627000");
+        customer.setUser(user);
+
+        parkingSlotCreateDTO = new ParkingSlotCreateDTO("A-01", "AVAILABLE");
+        parkingSlot = new ParkingSlot();
+        parkingSlot.setId(100L);
+        parkingSlot.setCode("A-01");
+        parkingSlot.setStatus(ParkingSlot.SlotStatus.UNAVAILABLE);
+        bulkCreateDTO = new ParkingSlotBulkCreateDTO(new ArrayList<>(), new ParkingSlotRangeDTO("A-", 1, BATCH_SIZE - 1, "AVAILABLE"));
+        bulkResults = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> new ParkingSlotService.BulkResult("A-" + i, i % 10 != 0, i % 10 != 0 ? null : "conflict"))
+                .toList();
+        slotStatusEvent = new ParkingSlotEventBus.SlotStatusEvent(100L, "A-01", ParkingSlot.SlotStatus.UNAVAILABLE);
+        occupancy = new ParkingSlotOccupancyService.Occupancy(500, 120, 0);
+
+        customerHasSlotCreateDTO = new CustomerHasSlotCreateDTO("FIT-2020", "FIAT", "PALIO", "VERDE", "94140627000");
+        customerHasSlot = new CustomerHasSlot();
+        customerHasSlot.setId(10L);
+        customerHasSlot.setReceipt("0C3Q9T2K8Z001");
+        customerHasSlot.setCarPlate("FIT-2020");
+        customerHasSlot.setCarBrand("FIAT");
+        customerHasSlot.setCarModel("PALIO");
+        customerHasSlot.setCarColor("VERDE");
+        customerHasSlot.setCheckIn(LocalDateTime.of(2024, 3, 10, 18, 7));
+        customerHasSlot.setCheckout(LocalDateTime.of(2024, 3, 10, 20, 12));
+        customerHasSlot.setPrice(new BigDecimal("18.00"));
+        customerHasSlot.setDiscount(BigDecimal.ZERO.setScale(2));
+        customerHasSlot.setCustomer(customer);
+        customerHasSlot.setParkingSlot(parkingSlot);
+        batchCreateDTO = new CustomerHasSlotBatchCreateDTO(
+                IntStream.range(0, BATCH_SIZE).mapToObj(i -> customerHasSlotCreateDTO).toList()
+        );
+        checkInResults = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> ParkingLotService.CheckInResult.checkedIn(customerHasSlot))
+                .toList();
+        checkoutResults = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> ParkingLotService.CheckoutResult.checkedOut(customerHasSlot))
+                .toList();
+
+        tariffDTO = new TariffDTO();
+        tariffDTO.setBlocks(List.of(new TariffDTO.Block(15, 500), new TariffDTO.Block(60, 925)));
+        tariffDTO.setIncrementMinutes(15);
+        tariffDTO.setIncrementCents(175);
+        simulation = new TariffSimulationService.TariffSimulation();
+    }
+
+    @Benchmark
+    public User toUser() {
+        return UserMapper.toUser(userCreateDTO);
+    }
+
+    @Benchmark
+    public UserResponseVO toUserResponseVO() {
+        return UserMapper.toUserResponseVO(user);
+    }
+
+    @Benchmark
+    public List<UserResponseVO> toUserResponseVOList() {
+        return UserMapper.toUserResponseVOList(users);
+    }
+
+    @Benchmark
+    public Customer toCustomer() {
+        return CustomerMapper.toCustomer(customerCreateDTO);
+    }
+
+    @Benchmark
+    public CustomerResponseVO toCustomerResponseVO() {
+        return CustomerMapper.toCustomerResponseVO(customer);
+    }
+
+    @Benchmark
+    public ParkingSlot toParkingSlot() {
+        return ParkingSlotMapper.toParkingSlot(parkingSlotCreateDTO);
+    }
+
+    @Benchmark
+    public ParkingSlotResponseVO toParkingSlotResponseVO() {
+        return ParkingSlotMapper.toParkingSlotResponseVO(parkingSlot);
+    }
+
+    @Benchmark
+    public List<ParkingSlot> toParkingSlots() {
+        return ParkingSlotMapper.toParkingSlots(bulkCreateDTO);
+    }
+
+    @Benchmark
+    public ParkingSlotBulkResponseVO toParkingSlotBulkResponseVO() {
+        return ParkingSlotMapper.toParkingSlotBulkResponseVO(bulkResults);
+    }
+
+    @Benchmark
+    public ParkingSlotResponseVO toParkingSlotResponseVOFromEvent() {
+        return ParkingSlotMapper.toParkingSlotResponseVO(slotStatusEvent);
+    }
+
+    @Benchmark
+    public ParkingSlotOccupancyResponseVO toParkingSlotOccupancyResponseVO() {
+        return ParkingSlotMapper.toParkingSlotOccupancyResponseVO(occupancy);
+    }
+
+    @Benchmark
+    public CustomerHasSlot toCustomerHasSlot() {
+        return CustomerHasSlotMapper.toCustomerHasSlot(customerHasSlotCreateDTO);
+    }
+
+    @Benchmark
+    public CustomerHasSlotResponseVO toCustomerHasSlotResponseVO() {
+        return CustomerHasSlotMapper.toCustomerHasSlotResponseVO(customerHasSlot);
+    }
+
+    @Benchmark
+    public CustomerHasSlotResponseVO toCheckInResponseVO() {
+        return CustomerHasSlotMapper.toCheckInResponseVO(customerHasSlot, RECEIPT_TOKEN);
+    }
+
+    @Benchmark
+    public List<CustomerHasSlot> toCustomerHasSlots() {
+        return CustomerHasSlotMapper.toCustomerHasSlots(batchCreateDTO);
+    }
+
+    @Benchmark
+    public CustomerHasSlotBatchResponseVO toCustomerHasSlotBatchResponseVO() {
+        return CustomerHasSlotMapper.toCustomerHasSlotBatchResponseVO(checkInResults, customerHasSlot -> RECEIPT_TOKEN);
+    }
+
+    @Benchmark
+    public CheckoutBatchResponseVO toCheckoutBatchResponseVO() {
+        return CustomerHasSlotMapper.toCheckoutBatchResponseVO(checkoutResults);
+    }
+
+    @Benchmark
+    public CustomerResponseVO modelMapperToCustomerResponseVO() {
+        return new ModelMapper().map(customer, CustomerResponseVO.class);
+    }
+
+    @Benchmark
+    public ParkingSlotResponseVO modelMapperToParkingSlotResponseVO() {
+        return new ModelMapper().map(parkingSlot, ParkingSlotResponseVO.class);
+    }
+
+    @Benchmark
+    public CustomerHasSlot modelMapperToCustomerHasSlot() {
+        return new ModelMapper().map(customerHasSlotCreateDTO, CustomerHasSlot.class);
+    }
+
+    @Benchmark
+    public CustomerHasSlotResponseVO modelMapperToCustomerHasSlotResponseVO() {
+        return new ModelMapper().map(customerHasSlot, CustomerHasSlotResponseVO.class);
+    }
+
+    @Benchmark
+    public TariffProperties toTariffProperties() {
+        return TariffMapper.toTariffProperties(tariffDTO);
+    }
+
+    @Benchmark
+    public TariffSimulationResponseVO toTariffSimulationResponseVO() {
+        return TariffMapper.toTariffSimulationResponseVO(simulation);
+    }
+}
@@ -0,0 +1,78 @@
+package com.jonasrosendo.demoparkingapi.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jonasrosendo.demoparkingapi.web.serializers.PageSerializer;
+import com.jonasrosendo.demoparkingapi.web.vos.PageableResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CustomerHasSlotResponseVO;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// history page written to the response: straight from the Page vs copied into PageableResponseVO first
+// mvn -P benchmarks test-compile exec:exec -Djmh.args=PageSerializationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"5", "100"})
+    private int size;
+
+    private final OutputStream out = OutputStream.nullOutputStream();
+    private ObjectMapper objectMapper;
+    private Page<CustomerHasSlotResponseVO> page;
+
+    @Setup
+    public void setUp() {
+        // the response stream stays open after a write, like in the message converter
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(PageSerializer.module())
+                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+        List<CustomerHasSlotResponseVO> content = IntStream.range(0, size)
+                .mapToObj(i -> new CustomerHasSlotResponseVO(
+                        "FIT-2020", "FIAT", "PALIO", "VERDE", "94140627000", "0C3Q9T2K8Z00" + (i % 10),
+                        LocalDateTime.of(2024, 3, 10, 18, 7), LocalDateTime.of(2024, 3, 10, 20, 12), "A-01",
+                        new BigDecimal("18.00"), new BigDecimal("0.00"), null
+                ))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, size), size * 10L);
+    }
+
+    @Benchmark
+    public void pageSerializer() throws IOException {
+        objectMapper.writeValue(out, page);
+    }
+
+    // previous PageableMapper.toPageableVO, for reference
+    @Benchmark
+    public void modelMapperPageableResponseVO() throws IOException {
+        objectMapper.writeValue(out, new ModelMapper().map(page, PageableResponseVO.class));
+    }
+}
@@ -0,0 +1,48 @@
+package com.jonasrosendo.demoparkingapi.benchmarks;
+
+import com.jonasrosendo.demoparkingapi.services.ReceiptGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// mvn -P benchmarks test-compile exec:exec -Djmh.args=ReceiptGeneratorBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptGeneratorBenchmark {
+
+    private final ReceiptGenerator receiptGenerator = new ReceiptGenerator(1);
+
+    @Benchmark
+    public String next() {
+        return receiptGenerator.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String nextContended() {
+        return receiptGenerator.next();
+    }
+
+    // previous second resolution receipt, for reference
+    @Benchmark
+    public String formattedDateTime() {
+        return LocalDateTime.now().toString().substring(0, 19)
+                .replace("-", "")
+                .replace(":", "")
+                .replace("T", "-");
+    }
+}
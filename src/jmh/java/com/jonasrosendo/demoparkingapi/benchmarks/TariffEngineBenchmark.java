@@ -0,0 +1,94 @@
+package com.jonasrosendo.demoparkingapi.benchmarks;
+
+import com.jonasrosendo.demoparkingapi.configs.TariffProperties;
+import com.jonasrosendo.demoparkingapi.services.TariffEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// mvn -P benchmarks test-compile exec:exec -Djmh.args="TariffEngineBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TariffEngineBenchmark {
+
+    @Param({"10", "185", "4320"})
+    private long minutes;
+
+    private LocalDateTime checkIn;
+    private LocalDateTime checkout;
+    private TariffEngine engine;
+    private TariffEngine bandedEngine;
+
+    @Setup
+    public void setUp() {
+        checkIn = LocalDateTime.of(2024, 3, 10, 18, 7);
+        checkout = checkIn.plusMinutes(minutes);
+        engine = new TariffEngine(new TariffProperties());
+
+        TariffProperties banded = new TariffProperties();
+        banded.setBands(List.of(new TariffProperties.Band(LocalTime.of(22, 0), LocalTime.of(6, 0), 100)));
+        banded.setDailyCapCents(6000);
+        bandedEngine = new TariffEngine(banded);
+    }
+
+    @Benchmark
+    public long priceCents() {
+        long price = engine.priceCents(checkIn, checkout);
+        return price + engine.discountCents(price, 10);
+    }
+
+    @Benchmark
+    public long priceCentsWithBandsAndCap() {
+        return bandedEngine.priceCents(checkIn, checkout);
+    }
+
+    // previous ParkingLotsUtils implementation, for reference
+    @Benchmark
+    public BigDecimal doubleToBigDecimal() {
+        BigDecimal price = calculatePrice(checkIn, checkout);
+        return price.add(calculateDiscount(price, 10));
+    }
+
+    private static BigDecimal calculatePrice(LocalDateTime checkIn, LocalDateTime checkout) {
+        long minutes = checkIn.until(checkout, ChronoUnit.MINUTES);
+        double price;
+
+        if (minutes <= 15) {
+            price = 5.00;
+        } else if (minutes <= 60) {
+            price = 9.25;
+        } else {
+            double factor = Math.ceil((minutes - 60) / 15.0);
+            price = 9.25 + (1.75 * factor);
+        }
+
+        return new BigDecimal(price).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private static BigDecimal calculateDiscount(BigDecimal price, long numberOfParking) {
+        BigDecimal discount = ((numberOfParking > 0 && numberOfParking % 10 == 0))
+                ? price.multiply(BigDecimal.valueOf(0.30))
+                : BigDecimal.valueOf(0.00);
+        return discount.setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
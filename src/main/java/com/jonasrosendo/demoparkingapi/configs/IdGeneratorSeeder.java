@@ -0,0 +1,58 @@
+package com.jonasrosendo.demoparkingapi.configs;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// moves every id_generators row past the ids already in its table, e.g. rows created while the tables used
+// auto increment ids. Runs once the EntityManagerFactory has created the schema and before any request is served
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdGeneratorSeeder {
+
+    private static final List<String> TABLES = List.of("users", "customers", "parking_slots", "customers_has_slots");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        TABLES.forEach(this::seed);
+    }
+
+    private void seed(String table) {
+        Long nextId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from " + table, Long.class);
+
+        if (advance(table, nextId) == 0 && !exists(table)) {
+            try {
+                jdbcTemplate.update("insert into id_generators (sequence_name, next_val) values (?, ?)", table, nextId);
+            } catch (DuplicateKeyException e) {
+                // another node seeded it first
+                advance(table, nextId);
+            }
+        }
+
+        log.debug("Id generator {} starts at {} or later", table, nextId);
+    }
+
+    private int advance(String table, Long nextId) {
+        return jdbcTemplate.update(
+                "update id_generators set next_val = ? where sequence_name = ? and next_val < ?",
+                nextId, table, nextId
+        );
+    }
+
+    private boolean exists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from id_generators where sequence_name = ?", Integer.class, table
+        );
+        return count != null && count > 0;
+    }
+}
@@ -1,14 +1,18 @@
 package com.jonasrosendo.demoparkingapi.configs;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 @Configuration
 public class SpringJpaAuditingConfig implements AuditorAware<String> {
 
@@ -22,4 +26,9 @@ public class SpringJpaAuditingConfig implements AuditorAware<String> {
 
         return Optional.empty();
     }
+
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider(Clock clock) {
+        return () -> Optional.of(LocalDateTime.now(clock));
+    }
 }
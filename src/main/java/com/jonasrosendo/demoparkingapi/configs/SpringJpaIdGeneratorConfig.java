@@ -0,0 +1,21 @@
+package com.jonasrosendo.demoparkingapi.configs;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SpringJpaIdGeneratorConfig {
+
+    // entities take ids in blocks of 50 from the id_generators table. With pooled-lo the stored value is the first
+    // id of the next block, which is what IdGeneratorSeeder writes, so it is pinned here instead of in properties
+    @Bean
+    public HibernatePropertiesCustomizer idOptimizerCustomizer() {
+        return properties -> properties.put(
+                AvailableSettings.PREFERRED_POOLED_OPTIMIZER,
+                StandardOptimizerDescriptor.POOLED_LO.getExternalName()
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package com.jonasrosendo.demoparkingapi.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@EnableScheduling
+@Configuration
+public class SpringSchedulingConfig {
+}
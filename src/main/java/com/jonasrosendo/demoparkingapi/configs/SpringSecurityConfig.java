@@ -2,6 +2,7 @@ package com.jonasrosendo.demoparkingapi.configs;
 
 import com.jonasrosendo.demoparkingapi.jwt.JwtAuthenticationEntryPoint;
 import com.jonasrosendo.demoparkingapi.jwt.JwtAuthorizationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -40,7 +41,11 @@ public class SpringSecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.POST, "api/v1/users").permitAll()
                         .requestMatchers(HttpMethod.POST, "api/v1/auth").permitAll()
+                        // public key and tariff for the exit gates, nothing there is secret
+                        .requestMatchers(HttpMethod.GET, "api/v1/parking-lots/receipts/verification").permitAll()
                         .requestMatchers(DOCUMENTATION_OPENAPI).permitAll()
+                        // streams were authorized on the original request, async dispatches only write the events
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .anyRequest().authenticated()
                 ).sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
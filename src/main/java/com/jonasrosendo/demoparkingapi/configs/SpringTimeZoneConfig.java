@@ -1,15 +1,19 @@
 package com.jonasrosendo.demoparkingapi.configs;
 
-import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.TimeZone;
+import java.time.Clock;
+import java.time.ZoneId;
 
+// check-ins, checkouts and audit columns are LocalDateTime in the time zone of the parking. They are all taken from
+// this clock, so the JVM default zone never leaks into stored times, tariffs or token timestamps
 @Configuration
 public class SpringTimeZoneConfig {
 
-    @PostConstruct
-    public void timezoneConfig() {
-        TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+    @Bean
+    public Clock clock(@Value("${parking.time-zone:America/Sao_Paulo}") ZoneId zone) {
+        return Clock.system(zone);
     }
 }
@@ -0,0 +1,31 @@
+package com.jonasrosendo.demoparkingapi.configs;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// @EnableWebMvc turns off Boot's MVC setup, so async requests (the slot event stream) are wired here: writes go to
+// the application executor instead of a new thread per event, and streams are closed after the timeout
+@Configuration
+public class SpringWebMvcAsyncConfig implements WebMvcConfigurer {
+
+    private final AsyncTaskExecutor taskExecutor;
+    private final long timeoutMs;
+
+    public SpringWebMvcAsyncConfig(
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+            @Value("${parking.slots.events.stream-timeout-ms:1800000}") long timeoutMs
+    ) {
+        this.taskExecutor = taskExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(taskExecutor);
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
@@ -0,0 +1,23 @@
+package com.jonasrosendo.demoparkingapi.configs;
+
+import com.jonasrosendo.demoparkingapi.web.serializers.PageSerializer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// @EnableWebMvc builds its own message converters and ignores Jackson Module beans, so modules are added here
+@Configuration
+public class SpringWebMvcJacksonConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter jacksonConverter) {
+                jacksonConverter.getObjectMapper().registerModule(PageSerializer.module());
+            }
+        }
+    }
+}
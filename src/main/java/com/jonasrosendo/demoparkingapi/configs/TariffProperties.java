@@ -0,0 +1,56 @@
+package com.jonasrosendo.demoparkingapi.configs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// parking.tariff.* schedule, every amount in cents. The defaults are the original tariff: 5.00 up to 15 minutes,
+// 9.25 up to 60 minutes, 1.75 for every started 15 minutes after that and 30% off every 10th parking
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "parking.tariff")
+public class TariffProperties {
+
+    // ascending, a stay of up to minutes pays cents
+    private List<Block> blocks = new ArrayList<>(List.of(new Block(15, 500), new Block(60, 925)));
+
+    // charged for every started increment after the last block. 24h must be a multiple of increment-minutes
+    private int incrementMinutes = 15;
+    private int incrementCents = 175;
+
+    // increments starting inside [from, to) are charged cents instead, to <= from wraps past midnight
+    private List<Band> bands = new ArrayList<>();
+
+    // cap for every 24h of the stay counted from the check-in, 0 disables it
+    private long dailyCapCents = 0;
+
+    private int loyaltyEvery = 10;
+    private int loyaltyDiscountPercent = 30;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Block {
+        private int minutes;
+        private int cents;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Band {
+        private LocalTime from;
+        private LocalTime to;
+        private int cents;
+    }
+}
@@ -22,7 +22,9 @@ import java.util.Objects;
 public class Customer implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customers_id")
+    @TableGenerator(name = "customers_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "customers", allocationSize = 50)
     private Long id;
 
     @Column(name = "name",nullable = false, length = 100)
@@ -17,12 +17,18 @@ import java.util.Objects;
 
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 @Entity
-@Table(name = "customers_has_slots")
+@Table(name = "customers_has_slots", indexes = {
+        @Index(name = "idx_customers_has_slots_customer_check_in", columnList = "customer_id, check_in, id"),
+        @Index(name = "idx_customers_has_slots_check_in", columnList = "check_in, id"),
+        @Index(name = "idx_customers_has_slots_checkout", columnList = "checkout, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class CustomerHasSlot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customers_has_slots_id")
+    @TableGenerator(name = "customers_has_slots_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "customers_has_slots", allocationSize = 50)
     private Long id;
 
     @Column(name = "receipt", nullable = false, unique = true, length = 15)
@@ -23,7 +23,9 @@ import java.util.Objects;
 public class ParkingSlot implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "parking_slots_id")
+    @TableGenerator(name = "parking_slots_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "parking_slots", allocationSize = 50)
     private Long id;
 
     @Column(name = "code", nullable = false, unique = true, length = 4)
@@ -33,6 +35,13 @@ public class ParkingSlot implements Serializable {
     @Enumerated(value = EnumType.STRING)
     private SlotStatus status;
 
+    // node currently holding the slot in its in-memory pool, see ParkingSlotAllocator
+    @Column(name = "lease_owner", length = 36)
+    private String leaseOwner;
+
+    @Column(name = "lease_expiry")
+    private LocalDateTime leaseExpiry;
+
     @Column(name = "creation_date")
     @CreatedDate
     private LocalDateTime creationDate;
@@ -86,6 +86,21 @@ public class ApiExceptionHandler {
                 .body(new ErrorMessage(request, statusCode, e.getMessage()));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorMessage> handleInvalidCursorException(
+            InvalidCursorException e,
+            HttpServletRequest request
+    ) {
+        HttpStatus statusCode = HttpStatus.BAD_REQUEST;
+
+        log.error("Api Error - ", e);
+
+        return ResponseEntity
+                .status(statusCode)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, statusCode, e.getMessage()));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorMessage> accessDeniedException(AccessDeniedException ex, HttpServletRequest request) {
         log.error("Api Error - ", ex);
@@ -1,6 +1,8 @@
 package com.jonasrosendo.demoparkingapi.jwt;
 
 
+import com.jonasrosendo.demoparkingapi.entities.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,11 +17,17 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+// authenticates a request from the claims of its token alone, the database is never read. A token without the id
+// claim or a known role, or one revoked by a password change, leaves the request unauthenticated: protected endpoints
+// answer 401 and public ones still serve it
 @Slf4j
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUserDetailsService userDetailsService;
+    private JwtTokenVerifier tokenVerifier;
+
+    @Autowired
+    private JwtTokenRevocations tokenRevocations;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -31,21 +39,46 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             return;
         }
 
-        if (!JwtUtils.isTokenValid(token)) {
+        // verified once, the claims are all the rest of the request needs from the token. Only tokens issued for
+        // JwtUtils.AUDIENCE pass, so a receipt token is never taken for a login
+        Claims claims = tokenVerifier.verify(token);
+
+        if (claims == null) {
             log.warn("Jwt token is invalid or expired.");
             filterChain.doFilter(request, response);
             return;
         }
 
-        String username = JwtUtils.getUsernameFromToken(token);
+        Long id = claims.get(JwtUtils.CLAIM_ID, Long.class);
+        User.Role role = toRole(claims.get(JwtUtils.CLAIM_ROLE, String.class));
 
-        toAuthentication(request, username);
+        if (id == null) {
+            log.warn("Jwt token has no user id.");
+        } else if (role == null) {
+            log.warn("Jwt token has no known role.");
+        } else if (tokenRevocations.isRevoked(id, claims.getIssuedAt())) {
+            log.warn("Jwt token was revoked.");
+        } else {
+            toAuthentication(request, new JwtUserDetails(id, claims.getSubject(), role));
+        }
 
         filterChain.doFilter(request, response);
     }
 
-    private void toAuthentication(HttpServletRequest request, String username) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+    // null when the claim is missing or not a role, the request then goes on unauthenticated
+    private static User.Role toRole(String role) {
+        if (role == null) {
+            return null;
+        }
+
+        try {
+            return User.Role.valueOf("ROLE_" + role);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void toAuthentication(HttpServletRequest request, UserDetails userDetails) {
         UsernamePasswordAuthenticationToken authenticationToken =
                 UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities());
 
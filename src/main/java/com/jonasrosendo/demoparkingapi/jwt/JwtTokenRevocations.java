@@ -0,0 +1,65 @@
+package com.jonasrosendo.demoparkingapi.jwt;
+
+import com.jonasrosendo.demoparkingapi.repositories.UserRepository;
+import com.jonasrosendo.demoparkingapi.repositories.projection.UserModificationProjection;
+import com.jonasrosendo.demoparkingapi.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// tokens issued before a user changed the password are rejected. The times are kept in memory, so checking a token
+// never reads the database: a change made here applies once its transaction commits and changes made by other nodes
+// are reloaded from users.modification_date from time to time. Only changes within the token lifetime are kept, older
+// tokens are expired anyway. iat has second precision, a token issued in the same second as the change is accepted
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtTokenRevocations {
+
+    private final UserRepository userRepository;
+    private final Clock clock;
+    // user id -> tokens issued before this epoch second are revoked
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    public void revoke(Long userId, LocalDateTime changedAt) {
+        TransactionUtils.afterCommit(() -> add(userId, changedAt));
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        Long before = revokedBefore.get(userId);
+        return before != null && (issuedAt == null || issuedAt.getTime() / 1000 < before);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${parking.jwt.revocations.reload-interval-ms:30000}",
+            initialDelayString = "${parking.jwt.revocations.reload-interval-ms:30000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        LocalDateTime since = LocalDateTime.now(clock).minus(JwtUtils.TOKEN_LIFETIME);
+
+        for (UserModificationProjection user : userRepository.findAllModifiedSince(since)) {
+            add(user.getId(), user.getModificationDate());
+        }
+
+        long expired = toEpochSecond(since);
+        revokedBefore.values().removeIf(before -> before < expired);
+    }
+
+    private void add(Long userId, LocalDateTime changedAt) {
+        revokedBefore.merge(userId, toEpochSecond(changedAt), Math::max);
+    }
+
+    private long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toEpochSecond();
+    }
+}
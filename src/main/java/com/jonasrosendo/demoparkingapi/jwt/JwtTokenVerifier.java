@@ -0,0 +1,37 @@
+package com.jonasrosendo.demoparkingapi.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+// the key and the parser are built once: building a parser looks up the json deserializer through a ServiceLoader,
+// which costs far more than checking the HMAC. JwtParser is immutable and safe to share between requests
+@Slf4j
+@Component
+public class JwtTokenVerifier {
+
+    private final JwtParser parser;
+
+    public JwtTokenVerifier() {
+        this.parser = Jwts.parserBuilder().setSigningKey(JwtUtils.SIGNING_KEY).requireAudience(JwtUtils.AUDIENCE).build();
+    }
+
+    // claims of a valid access token, with or without the Bearer prefix, null when it is invalid, expired or issued for
+    // another audience
+    public Claims verify(String token) {
+        try {
+            return parser.parseClaimsJws(removeBearer(token)).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error(String.format("Token invalid %s", e.getMessage()));
+        }
+
+        return null;
+    }
+
+    private static String removeBearer(String token) {
+        return token.startsWith(JwtUtils.JWT_BEARER) ? token.substring(JwtUtils.JWT_BEARER.length()) : token;
+    }
+}
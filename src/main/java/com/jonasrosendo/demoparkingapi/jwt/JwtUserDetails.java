@@ -5,18 +5,29 @@ import org.springframework.security.core.authority.AuthorityUtils;
 
 public class JwtUserDetails extends org.springframework.security.core.userdetails.User {
 
-    private final User user;
+    private final Long id;
+    private final User.Role role;
 
     public JwtUserDetails(User user) {
-        super(user.getUsername(), user.getPassword(), AuthorityUtils.createAuthorityList(user.getRole().name()));
-        this.user = user;
+        this(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+
+    // principal of a verified token, there is no password to carry
+    public JwtUserDetails(Long id, String username, User.Role role) {
+        this(id, username, "", role);
+    }
+
+    private JwtUserDetails(Long id, String username, String password, User.Role role) {
+        super(username, password, AuthorityUtils.createAuthorityList(role.name()));
+        this.id = id;
+        this.role = role;
     }
 
     public Long getId() {
-        return this.user.getId();
+        return this.id;
     }
 
     public String getRole() {
-        return this.user.getRole().name();
+        return this.role.name();
     }
 }
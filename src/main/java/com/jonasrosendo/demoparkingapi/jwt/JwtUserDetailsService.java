@@ -1,6 +1,7 @@
 package com.jonasrosendo.demoparkingapi.jwt;
 
 import com.jonasrosendo.demoparkingapi.entities.User;
+import com.jonasrosendo.demoparkingapi.repositories.projection.UserProjection;
 import com.jonasrosendo.demoparkingapi.services.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,7 +22,7 @@ public class JwtUserDetailsService implements UserDetailsService {
     }
 
     public JwtToken getTokenAuthenticated(String username) {
-        User.Role role = userService.findRoleByUsername(username);
-        return JwtUtils.createToken(username, role.name().substring("ROLE_".length()));
+        UserProjection user = userService.findProjectionByUsername(username);
+        return JwtUtils.createToken(user.getId(), username, user.getRole().name().substring("ROLE_".length()));
     }
 }
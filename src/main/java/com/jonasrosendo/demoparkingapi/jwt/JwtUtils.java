@@ -1,19 +1,14 @@
 package com.jonasrosendo.demoparkingapi.jwt;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import lombok.extern.slf4j.Slf4j;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.time.Duration;
 import java.util.Date;
 
-@Slf4j
 public class JwtUtils {
     public static final String JWT_BEARER = "Bearer ";
     public static final String JWT_AUTHORIZATION = "Authorization";
@@ -21,71 +16,40 @@ public class JwtUtils {
     public static final long EXPIRE_DAYS = 0;
     public static final long EXPIRE_HOURS = 0;
     public static final long EXPIRE_MINUTES = 30;
+    public static final Duration TOKEN_LIFETIME = Duration.ofDays(EXPIRE_DAYS).plusHours(EXPIRE_HOURS).plusMinutes(EXPIRE_MINUTES);
+    public static final String CLAIM_ID = "id";
+    public static final String CLAIM_ROLE = "role";
+    // only tokens for this audience authenticate requests, see ReceiptTokens for the gate receipts
+    public static final String AUDIENCE = "parking-api";
+
+    static final Key SIGNING_KEY = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
 
     private JwtUtils() {
 
     }
 
-    private static Key generateKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+    private static Date toExpireDate(Date start) {
+        return Date.from(start.toInstant().plus(TOKEN_LIFETIME));
     }
 
-    private static Date toExpireDate(Date start) {
-        LocalDateTime dateTime = start.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
-        LocalDateTime end = dateTime.plusDays(EXPIRE_DAYS).plusHours(EXPIRE_HOURS).plusMinutes(EXPIRE_MINUTES);
-        return Date.from(end.atZone(ZoneId.systemDefault()).toInstant());
+    // id and role are signed claims, so requests are authenticated from the token alone
+    public static JwtToken createToken(Long id, String username, String role) {
+        return createToken(id, username, role, new Date());
     }
 
-    public static JwtToken createToken(String username, String role) {
-        Date issuedAt = new Date();
+    public static JwtToken createToken(Long id, String username, String role, Date issuedAt) {
         Date limit = toExpireDate(issuedAt);
         String token = Jwts.builder()
                 .setHeaderParam("typ", "JWT")
                 .setSubject(username)
+                .setAudience(AUDIENCE)
                 .setIssuedAt(issuedAt)
                 .setExpiration(limit)
-                .signWith(generateKey(), SignatureAlgorithm.HS256)
-                .claim("role", role)
+                .signWith(SIGNING_KEY, SignatureAlgorithm.HS256)
+                .claim(CLAIM_ID, id)
+                .claim(CLAIM_ROLE, role)
                 .compact();
 
         return new JwtToken(token);
     }
-
-    private static Claims getClaimsFromToken(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(generateKey()).build()
-                    .parseClaimsJws(refactorToken(token)).getBody();
-        }catch (JwtException e) {
-            log.error(String.format("Token invalid %s", e.getMessage()));
-        }
-
-        return null;
-    }
-
-    public static String getUsernameFromToken(String token) {
-        return getClaimsFromToken(token).getSubject();
-    }
-
-    public static boolean isTokenValid(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(generateKey()).build()
-                    .parseClaimsJws(refactorToken(token));
-
-            return true;
-        }catch (JwtException e) {
-            log.error(String.format("Token invalid %s", e.getMessage()));
-        }
-
-        return false;
-    }
-
-    private static String refactorToken(String token) {
-        if (token.contains(JWT_BEARER)) {
-            return token.substring(JWT_BEARER.length());
-        }
-
-        return token;
-    }
 }
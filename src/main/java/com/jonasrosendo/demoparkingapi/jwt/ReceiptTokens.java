@@ -0,0 +1,131 @@
+package com.jonasrosendo.demoparkingapi.jwt;
+
+import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
+import com.jonasrosendo.demoparkingapi.services.TariffEngine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+// signed receipts for exit gates: receipt id, slot code, plate, check-in (epoch seconds) and the version of the
+// tariff they were issued under, so a gate verifies them and estimates the price offline. They are signed with their
+// own ES256 key pair, gates only hold the public key and can not mint bearer tokens, and the audience keeps a
+// receipt and an access token from being accepted in place of each other
+@Slf4j
+@Component
+public class ReceiptTokens {
+
+    public static final String ALGORITHM = SignatureAlgorithm.ES256.getValue();
+    public static final String AUDIENCE = "parking-gate";
+    public static final String CLAIM_SLOT = "slot";
+    public static final String CLAIM_PLATE = "plate";
+    public static final String CLAIM_CHECK_IN = "check_in";
+    public static final String CLAIM_TARIFF = "tariff";
+
+    private final PrivateKey privateKey;
+    private final PublicKey publicKey;
+    private final JwtParser parser;
+    private final Duration lifetime;
+    private final String tariffVersion;
+    private final Clock clock;
+
+    // keys are base64 DER, PKCS#8 for the private key and X.509 for the public one, shared by every node. A key pair
+    // generated at startup is only allowed with ephemeral-keys (tests): receipts would then only verify against the
+    // instance that issued them and only until it restarts
+    public ReceiptTokens(
+            @Value("${parking.receipts.private-key:}") String privateKey,
+            @Value("${parking.receipts.public-key:}") String publicKey,
+            @Value("${parking.receipts.ephemeral-keys:false}") boolean ephemeralKeys,
+            @Value("${parking.receipts.ttl-days:7}") long ttlDays,
+            TariffEngine tariffEngine,
+            Clock clock
+    ) {
+        KeyPair keyPair = toKeyPair(privateKey, publicKey, ephemeralKeys);
+        this.privateKey = keyPair.getPrivate();
+        this.publicKey = keyPair.getPublic();
+        this.parser = Jwts.parserBuilder().setSigningKey(this.publicKey).requireAudience(AUDIENCE).build();
+        this.lifetime = Duration.ofDays(ttlDays);
+        this.tariffVersion = tariffEngine.getVersion();
+        this.clock = clock;
+    }
+
+    // expires ttl-days after the check-in, gates fall back to the receipt lookup for longer stays
+    public String issue(CustomerHasSlot customerHasSlot) {
+        Instant checkIn = customerHasSlot.getCheckIn().atZone(clock.getZone()).toInstant();
+
+        return Jwts.builder()
+                .setSubject(customerHasSlot.getReceipt())
+                .setAudience(AUDIENCE)
+                .setIssuedAt(Date.from(clock.instant()))
+                .setExpiration(Date.from(checkIn.plus(lifetime)))
+                .claim(CLAIM_SLOT, customerHasSlot.getParkingSlot().getCode())
+                .claim(CLAIM_PLATE, customerHasSlot.getCarPlate())
+                .claim(CLAIM_CHECK_IN, checkIn.getEpochSecond())
+                .claim(CLAIM_TARIFF, tariffVersion)
+                .signWith(privateKey, SignatureAlgorithm.ES256)
+                .compact();
+    }
+
+    // what a gate does with the public key: claims of a valid receipt, null when it is invalid, expired or not a receipt
+    public Claims verify(String receiptToken) {
+        try {
+            return parser.parseClaimsJws(receiptToken).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn(String.format("Receipt token invalid %s", e.getMessage()));
+        }
+
+        return null;
+    }
+
+    public String getPublicKey() {
+        return Base64.getEncoder().encodeToString(publicKey.getEncoded());
+    }
+
+    public String getTariffVersion() {
+        return tariffVersion;
+    }
+
+    private static KeyPair toKeyPair(String privateKey, String publicKey, boolean ephemeralKeys) {
+        if (privateKey.isBlank() != publicKey.isBlank()) {
+            throw new IllegalArgumentException("parking.receipts.private-key and public-key should be set together");
+        }
+
+        if (privateKey.isBlank()) {
+            if (!ephemeralKeys) {
+                throw new IllegalStateException("parking.receipts.private-key and public-key are required, every node " +
+                        "should sign receipts with the same key pair");
+            }
+
+            log.warn("parking.receipts keys not set, receipts are signed with a key pair generated for this instance");
+            return Keys.keyPairFor(SignatureAlgorithm.ES256);
+        }
+
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            return new KeyPair(
+                    keyFactory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey))),
+                    keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKey)))
+            );
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("parking.receipts keys should be base64 DER EC P-256 keys", e);
+        }
+    }
+}
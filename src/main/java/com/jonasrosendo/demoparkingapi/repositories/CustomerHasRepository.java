@@ -1,19 +1,99 @@
 package com.jonasrosendo.demoparkingapi.repositories;
 
 import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
+import com.jonasrosendo.demoparkingapi.repositories.projection.ClosedSessionProjection;
 import com.jonasrosendo.demoparkingapi.repositories.projection.CustomerHasLotsProjection;
+import com.jonasrosendo.demoparkingapi.repositories.projection.CustomerParkingCountProjection;
+import com.jonasrosendo.demoparkingapi.repositories.projection.CustomerSessionCountProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CustomerHasRepository extends JpaRepository<CustomerHasSlot, Long> {
 
+    String HISTORY_SELECT = "select c.id as id, c.carPlate as carPlate, c.carBrand as carBrand, " +
+            "c.carModel as carModel, c.carColor as carColor, c.customer.cpf as customerCpf, c.receipt as receipt, " +
+            "c.checkIn as checkIn, c.checkout as checkout, c.parkingSlot.code as parkingSlotCode, " +
+            "c.price as price, c.discount as discount from CustomerHasSlot c ";
+    String HISTORY_AFTER = "and (c.checkIn > :checkIn or (c.checkIn = :checkIn and c.id > :id)) ";
+    String HISTORY_ORDER = "order by c.checkIn, c.id";
+
     Optional<CustomerHasSlot> findByReceiptAndCheckoutIsNull(String receipt);
     long countByCustomerCpfAndCheckoutIsNotNull(String cpf);
 
+    // customer, its user (eager) and slot in the same query, nothing is loaded per session afterwards
+    @Query("select c from CustomerHasSlot c join fetch c.customer cu join fetch cu.user join fetch c.parkingSlot " +
+            "where c.receipt in :receipts and c.checkout is null")
+    List<CustomerHasSlot> findAllByReceiptInAndCheckoutIsNull(Collection<String> receipts);
+
+    @Query("select c from CustomerHasSlot c join fetch c.customer cu join fetch cu.user join fetch c.parkingSlot " +
+            "where c.checkout is null")
+    List<CustomerHasSlot> findAllByCheckoutIsNull();
+
+    @Query("select c.receipt from CustomerHasSlot c where c.checkout is null")
+    List<String> findAllReceiptsByCheckoutIsNull();
+
+    @Query("select c.customer.cpf as cpf, count(c) as total from CustomerHasSlot c " +
+            "where c.customer.cpf in :cpfs and c.checkout is not null group by c.customer.cpf")
+    List<CustomerParkingCountProjection> countByCustomerCpfInAndCheckoutIsNotNull(Collection<String> cpfs);
+
+    @Query("select c.customer.id as customerId, count(c) as total from CustomerHasSlot c " +
+            "where c.checkout < :checkout group by c.customer.id")
+    List<CustomerSessionCountProjection> countByCustomerIdAndCheckoutBefore(LocalDateTime checkout);
+
+    // forward only cursor over the (checkout, id) index, fetched 1000 rows at a time (MySQL needs useCursorFetch=true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.jonasrosendo.demoparkingapi.repositories.projection.ClosedSessionProjection(" +
+            "c.customer.id, c.checkIn, c.checkout, c.price, c.discount) from CustomerHasSlot c " +
+            "where c.checkout >= :from and c.checkout < :to order by c.checkout, c.id")
+    Stream<ClosedSessionProjection> streamAllByCheckoutBetween(LocalDateTime from, LocalDateTime to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(HISTORY_SELECT + "where c.customer.cpf = :cpf " + HISTORY_ORDER)
+    Stream<CustomerHasLotsProjection> streamHistoryByCustomerCpf(String cpf);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(HISTORY_SELECT + "where c.checkIn >= :from and c.checkIn < :to " + HISTORY_ORDER)
+    Stream<CustomerHasLotsProjection> streamAllByCheckInBetween(LocalDateTime from, LocalDateTime to);
+
     Page<CustomerHasLotsProjection> findAllByCustomerCpf(String cpf, Pageable pageable);
 
     Page<CustomerHasLotsProjection> findAllByCustomerUserId(Long id, Pageable pageable);
+
+    Slice<CustomerHasLotsProjection> findSliceByCustomerCpf(String cpf, Pageable pageable);
+
+    Slice<CustomerHasLotsProjection> findSliceByCustomerUserId(Long id, Pageable pageable);
+
+    // keyset pages on (check_in, id): no count query and the same index range scan whatever the depth
+    @Query(HISTORY_SELECT + "where c.customer.cpf = :cpf " + HISTORY_ORDER)
+    List<CustomerHasLotsProjection> findHistoryByCustomerCpf(String cpf, Pageable pageable);
+
+    @Query(HISTORY_SELECT + "where c.customer.cpf = :cpf " + HISTORY_AFTER + HISTORY_ORDER)
+    List<CustomerHasLotsProjection> findHistoryByCustomerCpfAfter(String cpf, LocalDateTime checkIn, Long id, Pageable pageable);
+
+    @Query(HISTORY_SELECT + "where c.customer.user.id = :userId " + HISTORY_ORDER)
+    List<CustomerHasLotsProjection> findHistoryByCustomerUserId(Long userId, Pageable pageable);
+
+    @Query(HISTORY_SELECT + "where c.customer.user.id = :userId " + HISTORY_AFTER + HISTORY_ORDER)
+    List<CustomerHasLotsProjection> findHistoryByCustomerUserIdAfter(Long userId, LocalDateTime checkIn, Long id, Pageable pageable);
 }
@@ -4,16 +4,26 @@ import com.jonasrosendo.demoparkingapi.entities.Customer;
 import com.jonasrosendo.demoparkingapi.repositories.projection.CustomerProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     @Query("select c from Customer c")
     Page<CustomerProjection> findAllCustomers(Pageable pageable);
+
+    // size + 1 rows instead of a count query
+    @Query("select c from Customer c")
+    Slice<CustomerProjection> findSliceOfCustomers(Pageable pageable);
+
     Customer findByUserId(Long id);
 
     Optional<Customer> findByCpf(String cpf);
+
+    List<Customer> findAllByCpfIn(Collection<String> cpfs);
 }
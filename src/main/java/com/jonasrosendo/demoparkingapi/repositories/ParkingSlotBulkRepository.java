@@ -0,0 +1,16 @@
+package com.jonasrosendo.demoparkingapi.repositories;
+
+import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+
+import java.util.List;
+
+public interface ParkingSlotBulkRepository {
+
+    // plain JDBC batch insert, skips the persistence context and identity round trips of save().
+    // Inside a transaction the rows are inserted all or nothing
+    void insertAll(List<ParkingSlot> parkingSlots);
+
+    // one batched conditional update per slot, an entry is 0 when that slot is no longer AVAILABLE or no longer
+    // leased to leaseOwner
+    int[] occupyAll(List<Long> ids, String leaseOwner);
+}
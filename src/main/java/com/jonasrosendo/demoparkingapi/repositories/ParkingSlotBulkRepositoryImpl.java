@@ -0,0 +1,97 @@
+package com.jonasrosendo.demoparkingapi.repositories;
+
+import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ParkingSlotBulkRepositoryImpl implements ParkingSlotBulkRepository {
+
+    private static final String INSERT_SQL = "insert into parking_slots " +
+            "(id, code, status, creation_date, modification_date, created_by, modified_by) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String OCCUPY_SQL = "update parking_slots set status = 'UNAVAILABLE', lease_owner = null, " +
+            "lease_expiry = null where id = ? and status = 'AVAILABLE' and lease_owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final AuditorAware<String> auditorAware;
+    private final Clock clock;
+
+    @Override
+    public void insertAll(List<ParkingSlot> parkingSlots) {
+        assignIds(parkingSlots);
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (connection.getAutoCommit()) {
+                batchInsert(parkingSlots);
+                return null;
+            }
+
+            // all or nothing inside the surrounding transaction, drivers differ on what is kept of a failed batch
+            Savepoint savepoint = connection.setSavepoint();
+
+            try {
+                batchInsert(parkingSlots);
+            } catch (DataAccessException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    @Override
+    public int[] occupyAll(List<Long> ids, String leaseOwner) {
+        return jdbcTemplate.batchUpdate(OCCUPY_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setString(2, leaseOwner);
+        })[0];
+    }
+
+    private void batchInsert(List<ParkingSlot> parkingSlots) {
+        // auditing listeners do not run for JDBC writes, fill the columns the same way they would
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(clock));
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, parkingSlots, parkingSlots.size(), (ps, parkingSlot) -> {
+            ps.setLong(1, parkingSlot.getId());
+            ps.setString(2, parkingSlot.getCode());
+            ps.setString(3, parkingSlot.getStatus().name());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+            ps.setString(6, auditor);
+            ps.setString(7, auditor);
+        });
+    }
+
+    // ids come from the entity's own pooled generator, so JDBC and JPA inserts share the same blocks
+    private void assignIds(List<ParkingSlot> parkingSlots) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+                .getMappingMetamodel()
+                .getEntityDescriptor(ParkingSlot.class)
+                .getGenerator();
+
+        for (ParkingSlot parkingSlot : parkingSlots) {
+            if (parkingSlot.getId() == null) {
+                parkingSlot.setId((Long) generator.generate(session, parkingSlot, null, EventType.INSERT));
+            }
+        }
+    }
+}
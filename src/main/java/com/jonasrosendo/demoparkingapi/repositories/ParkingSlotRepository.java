@@ -1,12 +1,51 @@
 package com.jonasrosendo.demoparkingapi.repositories;
 
 import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, Long> {
+public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, Long>, ParkingSlotBulkRepository {
     Optional<ParkingSlot> findByCode(String code);
 
-    Optional<ParkingSlot> findFirstByStatus(ParkingSlot.SlotStatus slotStatus);
+    long countByStatus(ParkingSlot.SlotStatus status);
+
+    @Query("select s.code from ParkingSlot s where s.code in :codes")
+    List<String> findExistingCodes(Collection<String> codes);
+
+    // select ... for update skip locked: rows being leased by other nodes are skipped instead of waited on.
+    // lock timeout -2 is Hibernate's SKIP_LOCKED; dialects without support (H2) fall back to a plain for update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select s from ParkingSlot s where s.status = :status and (s.leaseExpiry is null or s.leaseExpiry < :now) order by s.id")
+    List<ParkingSlot> findLeasableSlots(ParkingSlot.SlotStatus status, LocalDateTime now, Pageable pageable);
+
+    // AVAILABLE slots pooled by other nodes whose leases are still live, skipping rows locked by another claim
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select s from ParkingSlot s where s.status = :status and s.leaseOwner <> :leaseOwner order by s.id")
+    List<ParkingSlot> findSlotsLeasedByOthers(ParkingSlot.SlotStatus status, String leaseOwner, Pageable pageable);
+
+    @Modifying
+    @Query("update ParkingSlot s set s.leaseOwner = :leaseOwner, s.leaseExpiry = :leaseExpiry where s.id in :ids")
+    int lease(List<Long> ids, String leaseOwner, LocalDateTime leaseExpiry);
+
+    @Modifying
+    @Query("update ParkingSlot s set s.leaseExpiry = :leaseExpiry where s.id in :ids and s.leaseOwner = :leaseOwner")
+    int renewLeases(Collection<Long> ids, String leaseOwner, LocalDateTime leaseExpiry);
+
+    @Modifying
+    @Query("update ParkingSlot s set s.leaseOwner = null, s.leaseExpiry = null where s.leaseOwner = :leaseOwner")
+    int releaseLeases(String leaseOwner);
 }
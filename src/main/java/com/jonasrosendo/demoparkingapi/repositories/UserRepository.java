@@ -1,15 +1,47 @@
 package com.jonasrosendo.demoparkingapi.repositories;
 
 import com.jonasrosendo.demoparkingapi.entities.User;
+import com.jonasrosendo.demoparkingapi.repositories.projection.UserModificationProjection;
+import com.jonasrosendo.demoparkingapi.repositories.projection.UserProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    String PROJECTION_SELECT = "select new com.jonasrosendo.demoparkingapi.repositories.projection.UserProjection(" +
+            "u.id, u.username, u.role) from User u ";
+
     Optional<User> findByUsername(String username);
 
-    @Query("select u.role from User u where u.username like :username")
-    User.Role findRoleByUsername(String username);
+    @Query(PROJECTION_SELECT + "where u.username = :username")
+    Optional<UserProjection> findProjectionByUsername(String username);
+
+    // password changes, the only update a user gets
+    @Query("select new com.jonasrosendo.demoparkingapi.repositories.projection.UserModificationProjection(" +
+            "u.id, u.modificationDate) from User u where u.modificationDate > :since")
+    List<UserModificationProjection> findAllModifiedSince(LocalDateTime since);
+
+    // keyset pages on the primary key: no count query and the same index range scan whatever the depth
+    @Query(PROJECTION_SELECT + "order by u.id")
+    List<UserProjection> findPage(Pageable pageable);
+
+    @Query(PROJECTION_SELECT + "where u.id > :id order by u.id")
+    List<UserProjection> findPageAfter(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(PROJECTION_SELECT + "order by u.id")
+    Stream<UserProjection> streamAllProjections();
 }
@@ -0,0 +1,19 @@
+package com.jonasrosendo.demoparkingapi.repositories.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// constructor projection, streamed rows are not entities so the persistence context stays empty
+@Getter
+@AllArgsConstructor
+public class ClosedSessionProjection {
+
+    private final Long customerId;
+    private final LocalDateTime checkIn;
+    private final LocalDateTime checkout;
+    private final BigDecimal price;
+    private final BigDecimal discount;
+}
@@ -1,6 +1,7 @@
 package com.jonasrosendo.demoparkingapi.repositories.projection;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -10,6 +11,10 @@ import java.time.LocalDateTime;
 @JsonInclude(value = JsonInclude.Include.NON_NULL)
 public interface CustomerHasLotsProjection {
 
+    // keyset cursor only, not part of the response
+    @JsonIgnore
+    Long getId();
+
     @JsonProperty(value = "car_plate")
     String getCarPlate();
 
@@ -0,0 +1,8 @@
+package com.jonasrosendo.demoparkingapi.repositories.projection;
+
+public interface CustomerSessionCountProjection {
+
+    Long getCustomerId();
+
+    long getTotal();
+}
@@ -0,0 +1,14 @@
+package com.jonasrosendo.demoparkingapi.repositories.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class UserModificationProjection {
+
+    private final Long id;
+    private final LocalDateTime modificationDate;
+}
@@ -0,0 +1,15 @@
+package com.jonasrosendo.demoparkingapi.repositories.projection;
+
+import com.jonasrosendo.demoparkingapi.entities.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// constructor projection of the listed columns, the password hash and audit columns are never read
+@Getter
+@AllArgsConstructor
+public class UserProjection {
+
+    private final Long id;
+    private final String username;
+    private final User.Role role;
+}
@@ -3,22 +3,55 @@ package com.jonasrosendo.demoparkingapi.services;
 import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
 import com.jonasrosendo.demoparkingapi.exceptions.EntityNotFoundException;
 import com.jonasrosendo.demoparkingapi.repositories.CustomerHasRepository;
+import com.jonasrosendo.demoparkingapi.repositories.projection.ClosedSessionProjection;
 import com.jonasrosendo.demoparkingapi.repositories.projection.CustomerHasLotsProjection;
+import com.jonasrosendo.demoparkingapi.repositories.projection.CustomerParkingCountProjection;
+import com.jonasrosendo.demoparkingapi.repositories.projection.CustomerSessionCountProjection;
+import com.jonasrosendo.demoparkingapi.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 @RequiredArgsConstructor
 @Service
 public class CustomerHasSlotService {
 
     private final CustomerHasRepository customerHasRepository;
+    private final OpenSessionIndex openSessionIndex;
 
+    // the index takes the saved entities, so new sessions are indexed with their id, and only once the transaction
+    // commits, so a rolled back check-in never reaches it
     @Transactional
     public CustomerHasSlot save(CustomerHasSlot customerHasSlot) {
-        return customerHasRepository.save(customerHasSlot);
+        CustomerHasSlot saved = customerHasRepository.save(customerHasSlot);
+        openSessionIndex.update(saved);
+        return saved;
+    }
+
+    @Transactional
+    public List<CustomerHasSlot> saveAll(List<CustomerHasSlot> customerHasSlots) {
+        List<CustomerHasSlot> saved = customerHasRepository.saveAll(customerHasSlots);
+        saved.forEach(openSessionIndex::update);
+        return saved;
+    }
+
+    // served from the open session index, the database is read only for sessions this node does not know yet
+    public CustomerHasSlot findOpenByReceipt(String receipt) {
+        return openSessionIndex.find(receipt).orElseGet(
+                () -> openSessionIndex.add(findByReceipt(receipt))
+        );
     }
 
     public CustomerHasSlot findByReceipt(String receipt) {
@@ -29,11 +62,37 @@ public class CustomerHasSlotService {
         );
     }
 
+    // closed sessions with checkout in [from, to), ordered by checkout. Must be closed by the caller, inside its
+    // transaction
+    @Transactional(readOnly = true)
+    public Stream<ClosedSessionProjection> streamAllClosedBetween(LocalDateTime from, LocalDateTime to) {
+        return customerHasRepository.streamAllByCheckoutBetween(from, to);
+    }
+
+    // finished parkings by customer id, customers without any before checkout are absent from the map
+    @Transactional(readOnly = true)
+    public Map<Long, Long> findTotalNumberOfParkingCompleteBefore(LocalDateTime checkout) {
+        return customerHasRepository.countByCustomerIdAndCheckoutBefore(checkout).stream()
+                .collect(Collectors.toMap(CustomerSessionCountProjection::getCustomerId, CustomerSessionCountProjection::getTotal));
+    }
+
     @Transactional(readOnly = true)
     public long findTotalNumberOfParkingComplete(String cpf) {
         return customerHasRepository.countByCustomerCpfAndCheckoutIsNotNull(cpf);
     }
 
+    @Transactional(readOnly = true)
+    public List<CustomerHasSlot> findAllOpenByReceipt(Collection<String> receipts) {
+        return customerHasRepository.findAllByReceiptInAndCheckoutIsNull(receipts);
+    }
+
+    // cpfs without any finished parking are absent from the map
+    @Transactional(readOnly = true)
+    public Map<String, Long> findTotalNumberOfParkingComplete(Collection<String> cpfs) {
+        return customerHasRepository.countByCustomerCpfInAndCheckoutIsNotNull(cpfs).stream()
+                .collect(Collectors.toMap(CustomerParkingCountProjection::getCpf, CustomerParkingCountProjection::getTotal));
+    }
+
     @Transactional(readOnly = true)
     public Page<CustomerHasLotsProjection> findAllByCustomerCpf(String cpf, Pageable pageable) {
         return customerHasRepository.findAllByCustomerCpf(cpf, pageable);
@@ -43,4 +102,46 @@ public class CustomerHasSlotService {
     public Page<CustomerHasLotsProjection> findAllByUserId(Long id, Pageable pageable) {
         return customerHasRepository.findAllByCustomerUserId(id, pageable);
     }
+
+    // whole history ordered by check-in, read from a cursor and handed to action row by row. The cursor is only open
+    // inside this transaction, so the rows must be consumed in action
+    @Transactional(readOnly = true)
+    public void forEachByCustomerCpf(String cpf, Consumer<CustomerHasLotsProjection> action) {
+        try (Stream<CustomerHasLotsProjection> sessions = customerHasRepository.streamHistoryByCustomerCpf(cpf)) {
+            sessions.forEach(action);
+        }
+    }
+
+    // sessions with check-in in [from, to) of every customer, same cursor rules as forEachByCustomerCpf
+    @Transactional(readOnly = true)
+    public void forEachByCheckInBetween(LocalDateTime from, LocalDateTime to, Consumer<CustomerHasLotsProjection> action) {
+        try (Stream<CustomerHasLotsProjection> sessions = customerHasRepository.streamAllByCheckInBetween(from, to)) {
+            sessions.forEach(action);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<CustomerHasLotsProjection> findSliceByCustomerCpf(String cpf, Pageable pageable) {
+        return customerHasRepository.findSliceByCustomerCpf(cpf, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<CustomerHasLotsProjection> findSliceByUserId(Long id, Pageable pageable) {
+        return customerHasRepository.findSliceByCustomerUserId(id, pageable);
+    }
+
+    // up to limit sessions after the cursor, the first ones when it is null
+    @Transactional(readOnly = true)
+    public List<CustomerHasLotsProjection> findAllByCustomerCpf(String cpf, KeysetCursor cursor, int limit) {
+        return cursor == null
+                ? customerHasRepository.findHistoryByCustomerCpf(cpf, PageRequest.ofSize(limit))
+                : customerHasRepository.findHistoryByCustomerCpfAfter(cpf, cursor.getCheckIn(), cursor.getId(), PageRequest.ofSize(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CustomerHasLotsProjection> findAllByUserId(Long id, KeysetCursor cursor, int limit) {
+        return cursor == null
+                ? customerHasRepository.findHistoryByCustomerUserId(id, PageRequest.ofSize(limit))
+                : customerHasRepository.findHistoryByCustomerUserIdAfter(id, cursor.getCheckIn(), cursor.getId(), PageRequest.ofSize(limit));
+    }
 }
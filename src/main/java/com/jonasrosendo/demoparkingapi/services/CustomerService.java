@@ -9,9 +9,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 @RequiredArgsConstructor
 @Service
 public class CustomerService {
@@ -21,7 +25,8 @@ public class CustomerService {
     @Transactional
     public Customer create(Customer customer) {
         try {
-            return customerRepository.save(customer);
+            // flush so a duplicated cpf fails here and not at commit, ids no longer force an immediate insert
+            return customerRepository.saveAndFlush(customer);
         } catch (DataIntegrityViolationException e) {
             throw new CpfUniqueViolationException(
                     String.format("CPF '%s' already registered.", customer.getCpf()));
@@ -40,6 +45,11 @@ public class CustomerService {
         return customerRepository.findAllCustomers(pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<CustomerProjection> findSlice(Pageable pageable) {
+        return customerRepository.findSliceOfCustomers(pageable);
+    }
+
     @Transactional(readOnly = true)
     public Customer findByUserId(Long id) {
         return customerRepository.findByUserId(id);
@@ -51,4 +61,9 @@ public class CustomerService {
                 () -> new EntityNotFoundException(String.format("Customer cpf=%s not found", cpf))
         );
     }
+
+    @Transactional(readOnly = true)
+    public List<Customer> findAllByCpf(Collection<String> cpfs) {
+        return customerRepository.findAllByCpfIn(cpfs);
+    }
 }
@@ -0,0 +1,94 @@
+package com.jonasrosendo.demoparkingapi.services;
+
+import com.jonasrosendo.demoparkingapi.entities.Customer;
+import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
+import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import com.jonasrosendo.demoparkingapi.repositories.CustomerHasRepository;
+import com.jonasrosendo.demoparkingapi.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// open sessions (checkout is null) by receipt, so receipt scans do not query customers_has_slots. Holds detached
+// copies with only what the receipt shows. Loaded at startup and kept on check-in and checkout of this node;
+// sessions opened elsewhere are added on the first miss and the ones closed elsewhere are dropped by the
+// periodic reconcile. There are never more open sessions than slots, so everything fits in memory
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OpenSessionIndex {
+
+    private final CustomerHasRepository customerHasRepository;
+    private final Map<String, CustomerHasSlot> sessions = new ConcurrentHashMap<>();
+
+    public Optional<CustomerHasSlot> find(String receipt) {
+        return Optional.ofNullable(sessions.get(receipt));
+    }
+
+    // applied once the current transaction commits
+    public void update(CustomerHasSlot customerHasSlot) {
+        String receipt = customerHasSlot.getReceipt();
+
+        if (customerHasSlot.getCheckout() == null) {
+            CustomerHasSlot snapshot = snapshot(customerHasSlot);
+            TransactionUtils.afterCommit(() -> sessions.put(receipt, snapshot));
+        } else {
+            TransactionUtils.afterCommit(() -> sessions.remove(receipt));
+        }
+    }
+
+    // for sessions read from the database, already committed
+    public CustomerHasSlot add(CustomerHasSlot customerHasSlot) {
+        CustomerHasSlot snapshot = snapshot(customerHasSlot);
+        sessions.put(snapshot.getReceipt(), snapshot);
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        customerHasRepository.findAllByCheckoutIsNull().forEach(this::add);
+        log.info("Indexed {} open sessions", sessions.size());
+    }
+
+    @Scheduled(fixedDelayString = "${parking.sessions.index.reconcile-interval-ms:60000}",
+            initialDelayString = "${parking.sessions.index.reconcile-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        // a session opened here after the query is dropped too, the next lookup reads it back from the database
+        Set<String> openReceipts = new HashSet<>(customerHasRepository.findAllReceiptsByCheckoutIsNull());
+        sessions.keySet().retainAll(openReceipts);
+    }
+
+    private static CustomerHasSlot snapshot(CustomerHasSlot customerHasSlot) {
+        Customer customer = new Customer();
+        customer.setId(customerHasSlot.getCustomer().getId());
+        customer.setCpf(customerHasSlot.getCustomer().getCpf());
+
+        ParkingSlot parkingSlot = new ParkingSlot();
+        parkingSlot.setId(customerHasSlot.getParkingSlot().getId());
+        parkingSlot.setCode(customerHasSlot.getParkingSlot().getCode());
+
+        CustomerHasSlot snapshot = new CustomerHasSlot();
+        snapshot.setId(customerHasSlot.getId());
+        snapshot.setReceipt(customerHasSlot.getReceipt());
+        snapshot.setCarPlate(customerHasSlot.getCarPlate());
+        snapshot.setCarBrand(customerHasSlot.getCarBrand());
+        snapshot.setCarModel(customerHasSlot.getCarModel());
+        snapshot.setCarColor(customerHasSlot.getCarColor());
+        snapshot.setCheckIn(customerHasSlot.getCheckIn());
+        snapshot.setCustomer(customer);
+        snapshot.setParkingSlot(parkingSlot);
+        return snapshot;
+    }
+}
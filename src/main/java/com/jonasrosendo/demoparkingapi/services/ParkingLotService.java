@@ -3,13 +3,24 @@ package com.jonasrosendo.demoparkingapi.services;
 import com.jonasrosendo.demoparkingapi.entities.Customer;
 import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
 import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
-import com.jonasrosendo.demoparkingapi.utils.ParkingLotsUtils;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
@@ -18,6 +29,11 @@ public class ParkingLotService {
     private final CustomerHasSlotService customerHasSlotService;
     private final CustomerService customerService;
     private final ParkingSlotService parkingSlotService;
+    private final ParkingSlotOccupancyService occupancyService;
+    private final ParkingSlotEventBus eventBus;
+    private final ReceiptGenerator receiptGenerator;
+    private final TariffEngine tariffEngine;
+    private final Clock clock;
 
     @Transactional
     public CustomerHasSlot checkIn(CustomerHasSlot customerHasSlot) {
@@ -25,29 +41,160 @@ public class ParkingLotService {
         customerHasSlot.setCustomer(customer);
 
         ParkingSlot parkingSlot = parkingSlotService.findAvailableSlot();
-        parkingSlot.setStatus(ParkingSlot.SlotStatus.UNAVAILABLE);
+        occupancyService.slotOccupied();
+        eventBus.slotStatusChanged(parkingSlot);
 
         customerHasSlot.setParkingSlot(parkingSlot);
-        customerHasSlot.setCheckIn(LocalDateTime.now());
+        customerHasSlot.setCheckIn(LocalDateTime.now(clock));
 
-        customerHasSlot.setReceipt(ParkingLotsUtils.generateReceipt());
+        customerHasSlot.setReceipt(receiptGenerator.next());
         return customerHasSlotService.save(customerHasSlot);
     }
 
+    // one customers query, one slot claim and batched inserts for the whole list. An unknown cpf or the parking
+    // running out of slots fails only that check-in
+    @Transactional
+    public List<CheckInResult> checkInAll(List<CustomerHasSlot> customerHasSlots) {
+        List<String> cpfs = customerHasSlots.stream().map(customerHasSlot -> customerHasSlot.getCustomer().getCpf()).distinct().toList();
+        Map<String, Customer> customers = customerService.findAllByCpf(cpfs).stream()
+                .collect(Collectors.toMap(Customer::getCpf, Function.identity()));
+
+        long accepted = customerHasSlots.stream()
+                .filter(customerHasSlot -> customers.containsKey(customerHasSlot.getCustomer().getCpf()))
+                .count();
+        List<ParkingSlot> parkingSlots = parkingSlotService.findAvailableSlots((int) accepted);
+        Iterator<ParkingSlot> availableSlots = parkingSlots.iterator();
+
+        List<CheckInResult> results = new ArrayList<>(customerHasSlots.size());
+        List<CustomerHasSlot> checkIns = new ArrayList<>(parkingSlots.size());
+        LocalDateTime checkInTime = LocalDateTime.now(clock);
+
+        for (CustomerHasSlot customerHasSlot : customerHasSlots) {
+            String cpf = customerHasSlot.getCustomer().getCpf();
+            Customer customer = customers.get(cpf);
+
+            if (customer == null) {
+                results.add(CheckInResult.failed(customerHasSlot, String.format("Customer cpf=%s not found", cpf)));
+            } else if (!availableSlots.hasNext()) {
+                results.add(CheckInResult.failed(customerHasSlot, "No Available slots"));
+            } else {
+                ParkingSlot parkingSlot = availableSlots.next();
+                customerHasSlot.setCustomer(customer);
+                customerHasSlot.setParkingSlot(parkingSlot);
+                customerHasSlot.setCheckIn(checkInTime);
+                customerHasSlot.setReceipt(receiptGenerator.next());
+                checkIns.add(customerHasSlot);
+                results.add(CheckInResult.checkedIn(customerHasSlot));
+                eventBus.slotStatusChanged(parkingSlot);
+            }
+        }
+
+        customerHasSlotService.saveAll(checkIns);
+        occupancyService.slotsOccupied(parkingSlots.size());
+        return results;
+    }
+
     @Transactional
     public CustomerHasSlot checkout(String receipt) {
         CustomerHasSlot customerHasSlot = customerHasSlotService.findByReceipt(receipt);
-        LocalDateTime checkoutTime = LocalDateTime.now();
-        BigDecimal price = ParkingLotsUtils.calculatePrice(customerHasSlot.getCheckIn(), checkoutTime);
-        customerHasSlot.setPrice(price);
+        LocalDateTime checkoutTime = LocalDateTime.now(clock);
+        long price = tariffEngine.priceCents(customerHasSlot.getCheckIn(), checkoutTime);
+        customerHasSlot.setPrice(TariffEngine.toAmount(price));
 
         long numberOfParking = customerHasSlotService.findTotalNumberOfParkingComplete(customerHasSlot.getCustomer().getCpf());
-        BigDecimal discount = ParkingLotsUtils.calculateDiscount(price, numberOfParking);
-        customerHasSlot.setDiscount(discount);
+        customerHasSlot.setDiscount(TariffEngine.toAmount(tariffEngine.discountCents(price, numberOfParking)));
 
         customerHasSlot.setCheckout(checkoutTime);
-        customerHasSlot.getParkingSlot().setStatus(ParkingSlot.SlotStatus.AVAILABLE);
+        parkingSlotService.release(customerHasSlot.getParkingSlot());
+        occupancyService.slotReleased();
+        eventBus.slotStatusChanged(customerHasSlot.getParkingSlot());
 
         return customerHasSlotService.save(customerHasSlot);
     }
+
+    // one query for the sessions and one grouped count for the loyalty discounts, the updates are flushed at commit
+    // as JDBC batches. Sessions of the same customer count the ones checked out before them in the list. There is one
+    // result per receipt, a repeated receipt fails instead of being checked out twice
+    @Transactional
+    public List<CheckoutResult> checkoutAll(List<String> receipts) {
+        Map<String, CustomerHasSlot> sessions = customerHasSlotService.findAllOpenByReceipt(receipts).stream()
+                .collect(Collectors.toMap(CustomerHasSlot::getReceipt, Function.identity()));
+
+        List<String> cpfs = sessions.values().stream().map(session -> session.getCustomer().getCpf()).distinct().toList();
+        Map<String, Long> numberOfParking = new HashMap<>(customerHasSlotService.findTotalNumberOfParkingComplete(cpfs));
+
+        List<CheckoutResult> results = new ArrayList<>(receipts.size());
+        Set<String> seenReceipts = new HashSet<>();
+        LocalDateTime checkoutTime = LocalDateTime.now(clock);
+
+        for (String receipt : receipts) {
+            if (!seenReceipts.add(receipt)) {
+                results.add(CheckoutResult.failed(receipt, String.format("Receipt '%s' repeated in the request", receipt)));
+                continue;
+            }
+
+            CustomerHasSlot customerHasSlot = sessions.get(receipt);
+
+            if (customerHasSlot == null) {
+                results.add(CheckoutResult.failed(
+                        receipt, String.format("Receipt '%s' not found or checkout already performed", receipt)
+                ));
+                continue;
+            }
+
+            long price = tariffEngine.priceCents(customerHasSlot.getCheckIn(), checkoutTime);
+            customerHasSlot.setPrice(TariffEngine.toAmount(price));
+
+            long completed = numberOfParking.merge(customerHasSlot.getCustomer().getCpf(), 1L, Long::sum) - 1;
+            customerHasSlot.setDiscount(TariffEngine.toAmount(tariffEngine.discountCents(price, completed)));
+
+            customerHasSlot.setCheckout(checkoutTime);
+            parkingSlotService.release(customerHasSlot.getParkingSlot());
+            eventBus.slotStatusChanged(customerHasSlot.getParkingSlot());
+            results.add(CheckoutResult.checkedOut(customerHasSlot));
+        }
+
+        customerHasSlotService.saveAll(List.copyOf(sessions.values()));
+        occupancyService.slotsReleased(sessions.size());
+        return results;
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class CheckInResult {
+        private final CustomerHasSlot customerHasSlot;
+        private final String error;
+
+        public boolean isCheckedIn() {
+            return error == null;
+        }
+
+        public static CheckInResult checkedIn(CustomerHasSlot customerHasSlot) {
+            return new CheckInResult(customerHasSlot, null);
+        }
+
+        public static CheckInResult failed(CustomerHasSlot customerHasSlot, String error) {
+            return new CheckInResult(customerHasSlot, error);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class CheckoutResult {
+        private final String receipt;
+        private final CustomerHasSlot customerHasSlot;
+        private final String error;
+
+        public boolean isCheckedOut() {
+            return error == null;
+        }
+
+        public static CheckoutResult checkedOut(CustomerHasSlot customerHasSlot) {
+            return new CheckoutResult(customerHasSlot.getReceipt(), customerHasSlot, null);
+        }
+
+        public static CheckoutResult failed(String receipt, String error) {
+            return new CheckoutResult(receipt, null, error);
+        }
+    }
 }
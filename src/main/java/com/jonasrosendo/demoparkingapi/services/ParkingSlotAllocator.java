@@ -0,0 +1,224 @@
+package com.jonasrosendo.demoparkingapi.services;
+
+import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import com.jonasrosendo.demoparkingapi.repositories.ParkingSlotRepository;
+import com.jonasrosendo.demoparkingapi.utils.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Per-node pool of AVAILABLE slots leased from parking_slots (lease_owner/lease_expiry). Blocks are leased in the
+// background, a slot is taken from the pool with a CAS (ConcurrentLinkedQueue.poll) and confirmed with a conditional
+// update on its own row, so nodes never compete for the same rows at check-in. Only slots still in the pool have
+// their leases renewed, and a node that finds nothing left to lease takes over slots pooled by other nodes, so one
+// node can not hold the whole parking while it has AVAILABLE slots.
+@Slf4j
+@Component
+public class ParkingSlotAllocator {
+
+    private final ParkingSlotRepository slotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final String leaseOwner;
+    private final int blockSize;
+    private final int lowWatermark;
+    private final long leaseTtlSeconds;
+    private final Queue<ParkingSlot> freeSlots = new ConcurrentLinkedQueue<>();
+
+    public ParkingSlotAllocator(
+            ParkingSlotRepository slotRepository,
+            PlatformTransactionManager transactionManager,
+            Clock clock,
+            @Value("${parking.node-id:0}") int nodeId,
+            @Value("${parking.slots.lease.block-size:50}") int blockSize,
+            @Value("${parking.slots.lease.low-watermark:10}") int lowWatermark,
+            @Value("${parking.slots.lease.ttl-seconds:300}") long leaseTtlSeconds
+    ) {
+        this.slotRepository = slotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.leaseOwner = String.valueOf(nodeId);
+        this.blockSize = blockSize;
+        this.lowWatermark = lowWatermark;
+        this.leaseTtlSeconds = leaseTtlSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        refill();
+    }
+
+    @Scheduled(fixedDelayString = "${parking.slots.lease.refill-interval-ms:5000}")
+    public void refill() {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<Long> pooled = freeSlots.stream().map(ParkingSlot::getId).toList();
+
+            // leases of slots that left the pool (claimed, or stale entries) are left to expire
+            if (!pooled.isEmpty()) {
+                slotRepository.renewLeases(pooled, leaseOwner, now.plusSeconds(leaseTtlSeconds));
+            }
+
+            if (freeSlots.size() < lowWatermark) {
+                List<ParkingSlot> leased = lease(now, blockSize);
+                TransactionUtils.afterCommit(() -> freeSlots.addAll(leased));
+            }
+        });
+    }
+
+    public Optional<ParkingSlot> claim() {
+        return claim(1).stream().findFirst();
+    }
+
+    // claims up to count slots, fewer when the parking runs out of AVAILABLE slots
+    public List<ParkingSlot> claim(int count) {
+        List<ParkingSlot> claimed = new ArrayList<>(count);
+        Deque<ParkingSlot> leased = new ArrayDeque<>();
+        boolean leasable = true;
+
+        while (claimed.size() < count) {
+            List<ParkingSlot> candidates = take(leased, count - claimed.size());
+
+            if (candidates.isEmpty()) {
+                if (!leasable) {
+                    break;
+                }
+
+                // pool ran dry: lease inside the check-in transaction and keep what is left once it commits
+                LocalDateTime now = LocalDateTime.now(clock);
+                List<ParkingSlot> block = lease(now, Math.max(blockSize, count - claimed.size()));
+
+                if (block.isEmpty()) {
+                    block = steal(now, count - claimed.size());
+                }
+
+                leasable = !block.isEmpty();
+                leased.addAll(block);
+                continue;
+            }
+
+            claimed.addAll(tryClaim(candidates));
+        }
+
+        if (!leased.isEmpty()) {
+            TransactionUtils.afterCommit(() -> freeSlots.addAll(leased));
+        }
+
+        return claimed;
+    }
+
+    // puts a slot back into this node's pool, the caller persists the lease columns with the slot
+    public void release(ParkingSlot parkingSlot) {
+        parkingSlot.setLeaseOwner(leaseOwner);
+        parkingSlot.setLeaseExpiry(LocalDateTime.now(clock).plusSeconds(leaseTtlSeconds));
+        TransactionUtils.afterCommit(() -> freeSlots.offer(toFreeSlot(parkingSlot.getId(), parkingSlot.getCode())));
+    }
+
+    @PreDestroy
+    public void releaseLeases() {
+        freeSlots.clear();
+
+        try {
+            Integer released = transactionTemplate.execute(status -> slotRepository.releaseLeases(leaseOwner));
+            log.info("Released {} slot leases held by node {}", released, leaseOwner);
+        } catch (DataAccessException e) {
+            log.warn("Could not release slot leases held by node {}, they will expire", leaseOwner, e);
+        }
+    }
+
+    private List<ParkingSlot> lease(LocalDateTime now, int size) {
+        List<ParkingSlot> slots = slotRepository.findLeasableSlots(
+                ParkingSlot.SlotStatus.AVAILABLE,
+                now,
+                PageRequest.ofSize(size)
+        );
+
+        return lease(slots, now);
+    }
+
+    // takes over only what the check-in needs, the pool entries left on the other nodes fail their conditional
+    // update in tryClaim and are dropped there
+    private List<ParkingSlot> steal(LocalDateTime now, int size) {
+        List<ParkingSlot> slots = slotRepository.findSlotsLeasedByOthers(
+                ParkingSlot.SlotStatus.AVAILABLE,
+                leaseOwner,
+                PageRequest.ofSize(size)
+        );
+
+        if (!slots.isEmpty()) {
+            log.info("Node {} took over {} slots leased by other nodes", leaseOwner, slots.size());
+        }
+
+        return lease(slots, now);
+    }
+
+    private List<ParkingSlot> lease(List<ParkingSlot> slots, LocalDateTime now) {
+        if (slots.isEmpty()) {
+            return List.of();
+        }
+
+        slotRepository.lease(slots.stream().map(ParkingSlot::getId).toList(), leaseOwner, now.plusSeconds(leaseTtlSeconds));
+        log.debug("Node {} leased {} slots", leaseOwner, slots.size());
+        return slots.stream().map(slot -> toFreeSlot(slot.getId(), slot.getCode())).toList();
+    }
+
+    private List<ParkingSlot> take(Deque<ParkingSlot> leased, int count) {
+        List<ParkingSlot> candidates = new ArrayList<>(count);
+        ParkingSlot candidate;
+
+        while (candidates.size() < count && (candidate = freeSlots.poll()) != null) {
+            candidates.add(candidate);
+        }
+
+        while (candidates.size() < count && !leased.isEmpty()) {
+            candidates.add(leased.poll());
+        }
+
+        return candidates;
+    }
+
+    private List<ParkingSlot> tryClaim(List<ParkingSlot> candidates) {
+        int[] updated = slotRepository.occupyAll(candidates.stream().map(ParkingSlot::getId).toList(), leaseOwner);
+        List<ParkingSlot> claimed = new ArrayList<>(candidates.size());
+
+        for (int i = 0; i < candidates.size(); i++) {
+            // stale entry: the slot was changed, deleted or its lease expired and was taken by another node
+            if (updated[i] > 0) {
+                ParkingSlot candidate = candidates.get(i);
+                candidate.setStatus(ParkingSlot.SlotStatus.UNAVAILABLE);
+                claimed.add(candidate);
+            }
+        }
+
+        TransactionUtils.onRollback(() -> claimed.forEach(
+                parkingSlot -> freeSlots.offer(toFreeSlot(parkingSlot.getId(), parkingSlot.getCode()))
+        ));
+        return claimed;
+    }
+
+    private static ParkingSlot toFreeSlot(Long id, String code) {
+        ParkingSlot parkingSlot = new ParkingSlot();
+        parkingSlot.setId(id);
+        parkingSlot.setCode(code);
+        parkingSlot.setStatus(ParkingSlot.SlotStatus.AVAILABLE);
+        return parkingSlot;
+    }
+}
@@ -0,0 +1,79 @@
+package com.jonasrosendo.demoparkingapi.services;
+
+import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import com.jonasrosendo.demoparkingapi.utils.TransactionUtils;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+// single in-memory fan out of slot changes to every stream subscriber. Emitting never waits on subscribers:
+// slot changes are buffered per subscriber dropping the oldest ones, occupancy is conflated to the latest snapshot
+// and new subscribers get the current snapshot right away
+@Slf4j
+@Component
+public class ParkingSlotEventBus {
+
+    private static final Duration EMIT_RETRY_TIMEOUT = Duration.ofMillis(100);
+
+    private final Sinks.Many<SlotStatusEvent> slotSink = Sinks.many().multicast().directBestEffort();
+    private final Sinks.Many<ParkingSlotOccupancyService.Occupancy> occupancySink = Sinks.many().replay().latest();
+    private final int subscriberBufferSize;
+
+    public ParkingSlotEventBus(@Value("${parking.slots.events.subscriber-buffer-size:256}") int subscriberBufferSize) {
+        this.subscriberBufferSize = subscriberBufferSize;
+    }
+
+    public Flux<SlotStatusEvent> slotEvents() {
+        return slotSink.asFlux().onBackpressureBuffer(subscriberBufferSize, event -> {}, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    public Flux<ParkingSlotOccupancyService.Occupancy> occupancyEvents() {
+        return occupancySink.asFlux().onBackpressureLatest();
+    }
+
+    // published once the current transaction commits, with the slot state at the time of the call
+    public void slotStatusChanged(ParkingSlot parkingSlot) {
+        SlotStatusEvent event = new SlotStatusEvent(parkingSlot.getId(), parkingSlot.getCode(), parkingSlot.getStatus());
+        TransactionUtils.afterCommit(() -> emit(slotSink, event));
+    }
+
+    public void occupancyChanged(ParkingSlotOccupancyService.Occupancy occupancy) {
+        emit(occupancySink, occupancy);
+    }
+
+    // sinks reject concurrent emissions (FAIL_NON_SERIALIZED) and callers come from any request thread: retry for a
+    // bounded time instead of making every committing thread queue on one lock while the event fans out
+    private <T> void emit(Sinks.Many<T> sink, T event) {
+        Sinks.EmitResult result = sink.tryEmitNext(event);
+        Sinks.EmitFailureHandler retry = null;
+
+        while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            if (retry == null) {
+                retry = Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY_TIMEOUT);
+            }
+
+            if (!retry.onEmitFailure(SignalType.ON_NEXT, result)) {
+                log.warn("Dropped {}, the stream was busy for more than {}", event.getClass().getSimpleName(), EMIT_RETRY_TIMEOUT);
+                return;
+            }
+
+            result = sink.tryEmitNext(event);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SlotStatusEvent {
+        private final Long id;
+        private final String code;
+        private final ParkingSlot.SlotStatus status;
+    }
+}
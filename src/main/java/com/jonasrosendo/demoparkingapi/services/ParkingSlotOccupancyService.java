@@ -0,0 +1,113 @@
+package com.jonasrosendo.demoparkingapi.services;
+
+import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import com.jonasrosendo.demoparkingapi.repositories.ParkingSlotRepository;
+import com.jonasrosendo.demoparkingapi.utils.TransactionUtils;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// in-memory slot counters, so reading the occupancy never touches the database. Changes are applied once the
+// transaction that made them commits and the counters are recounted from parking_slots from time to time, which
+// fixes drift from rows written by other nodes or directly in the database
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ParkingSlotOccupancyService {
+
+    private final ParkingSlotRepository slotRepository;
+    private final ParkingSlotEventBus eventBus;
+    private final AtomicReference<Occupancy> occupancy = new AtomicReference<>(new Occupancy(0, 0, 0));
+
+    public Occupancy getOccupancy() {
+        return occupancy.get();
+    }
+
+    public void slotCreated(ParkingSlot.SlotStatus status) {
+        slotsCreated(1, status == ParkingSlot.SlotStatus.AVAILABLE ? 1 : 0);
+    }
+
+    public void slotsCreated(long total, long available) {
+        TransactionUtils.afterCommit(() -> add(total, available));
+    }
+
+    public void slotOccupied() {
+        slotsOccupied(1);
+    }
+
+    public void slotsOccupied(long count) {
+        TransactionUtils.afterCommit(() -> add(0, -count));
+    }
+
+    public void slotReleased() {
+        slotsReleased(1);
+    }
+
+    public void slotsReleased(long count) {
+        TransactionUtils.afterCommit(() -> add(0, count));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${parking.slots.occupancy.reconcile-interval-ms:60000}",
+            initialDelayString = "${parking.slots.occupancy.reconcile-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        Occupancy previous = occupancy.get();
+        long total = slotRepository.count();
+        long available = slotRepository.countByStatus(ParkingSlot.SlotStatus.AVAILABLE);
+
+        // the version moves with every applied change. Unchanged, the count is swapped in as is. Changed, the changes
+        // applied while counting are kept on top of it instead of skipping the run. A change already committed when
+        // the count read it but applied after previous was read is counted twice, only until the next run that sees
+        // no change while counting: the error never outlives one quiet run and does not add up across runs
+        Occupancy reconciled = occupancy.updateAndGet(current -> current.getVersion() == previous.getVersion()
+                ? new Occupancy(total, available, current.getVersion())
+                : new Occupancy(
+                        total + current.getTotal() - previous.getTotal(),
+                        available + current.getAvailable() - previous.getAvailable(),
+                        current.getVersion()
+                ));
+
+        publish();
+
+        if (previous.getTotal() != reconciled.getTotal() || previous.getAvailable() != reconciled.getAvailable()) {
+            log.debug("Occupancy reconciled from {}/{} to {}/{} available slots",
+                    previous.getAvailable(), previous.getTotal(), reconciled.getAvailable(), reconciled.getTotal());
+        }
+    }
+
+    private void add(long total, long available) {
+        occupancy.updateAndGet(current -> new Occupancy(
+                current.getTotal() + total,
+                current.getAvailable() + available,
+                current.getVersion() + 1
+        ));
+        publish();
+    }
+
+    // reads the snapshot under the lock, so concurrent updates can not publish an older snapshot last
+    private synchronized void publish() {
+        eventBus.occupancyChanged(occupancy.get());
+    }
+
+    // immutable, total and available are always read from the same snapshot. version counts the changes applied
+    @Getter
+    @AllArgsConstructor
+    public static class Occupancy {
+        private final long total;
+        private final long available;
+        private final long version;
+
+        public long getOccupied() {
+            return total - available;
+        }
+    }
+}
@@ -4,26 +4,100 @@ import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
 import com.jonasrosendo.demoparkingapi.exceptions.EntityNotFoundException;
 import com.jonasrosendo.demoparkingapi.exceptions.ParkingLotCodeUniqueViolationException;
 import com.jonasrosendo.demoparkingapi.repositories.ParkingSlotRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class ParkingSlotService {
 
     private final ParkingSlotRepository slotRepository;
+    private final ParkingSlotAllocator slotAllocator;
+    private final ParkingSlotOccupancyService occupancyService;
+
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int CODES_QUERY_CHUNK_SIZE = 1000;
 
     @Transactional
     public ParkingSlot save(ParkingSlot parkingSlot) {
         try {
-            return slotRepository.save(parkingSlot);
+            if (parkingSlot.getStatus() == ParkingSlot.SlotStatus.AVAILABLE) {
+                slotAllocator.release(parkingSlot);
+            }
+
+            ParkingSlot saved = slotRepository.saveAndFlush(parkingSlot);
+            occupancyService.slotCreated(saved.getStatus());
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new ParkingLotCodeUniqueViolationException(String.format("Lot code=%s already registered", parkingSlot.getCode()));
         }
     }
 
+    // duplicated codes are reported per slot instead of failing the whole request, results follow the order of
+    // parkingSlots. New AVAILABLE slots are not leased here, the allocator picks them up on its next refill
+    @Transactional
+    public List<BulkResult> saveAll(List<ParkingSlot> parkingSlots) {
+        BulkResult[] results = new BulkResult[parkingSlots.size()];
+        Set<String> existingCodes = findExistingCodes(parkingSlots);
+        Set<String> seenCodes = new HashSet<>();
+        List<Integer> toInsert = new ArrayList<>();
+        List<ParkingSlot> inserted = new ArrayList<>();
+
+        for (int i = 0; i < parkingSlots.size(); i++) {
+            String code = parkingSlots.get(i).getCode();
+
+            if (existingCodes.contains(code) || !seenCodes.add(code)) {
+                results[i] = BulkResult.conflict(code);
+            } else {
+                toInsert.add(i);
+            }
+        }
+
+        for (int i = 0; i < toInsert.size(); i += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = toInsert.subList(i, Math.min(i + BULK_CHUNK_SIZE, toInsert.size()));
+
+            try {
+                slotRepository.insertAll(chunk.stream().map(parkingSlots::get).toList());
+
+                for (Integer index : chunk) {
+                    results[index] = BulkResult.created(parkingSlots.get(index).getCode());
+                    inserted.add(parkingSlots.get(index));
+                }
+            } catch (DuplicateKeyException e) {
+                // a code was registered concurrently and the chunk was rolled back, retry it row by row
+                for (Integer index : chunk) {
+                    ParkingSlot parkingSlot = parkingSlots.get(index);
+
+                    try {
+                        slotRepository.insertAll(List.of(parkingSlot));
+                        results[index] = BulkResult.created(parkingSlot.getCode());
+                        inserted.add(parkingSlot);
+                    } catch (DuplicateKeyException duplicated) {
+                        results[index] = BulkResult.conflict(parkingSlot.getCode());
+                    }
+                }
+            }
+        }
+
+        occupancyService.slotsCreated(
+                inserted.size(),
+                inserted.stream().filter(parkingSlot -> parkingSlot.getStatus() == ParkingSlot.SlotStatus.AVAILABLE).count()
+        );
+
+        return Arrays.asList(results);
+    }
+
     @Transactional(readOnly = true)
     public ParkingSlot findByCode(String code) {
         return slotRepository.findByCode(code).orElseThrow(
@@ -31,10 +105,47 @@ public class ParkingSlotService {
         );
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
     public ParkingSlot findAvailableSlot() {
-        return slotRepository.findFirstByStatus(ParkingSlot.SlotStatus.AVAILABLE).orElseThrow(
+        return slotAllocator.claim().orElseThrow(
                 () -> new EntityNotFoundException("No Available slots")
         );
     }
+
+    @Transactional
+    public List<ParkingSlot> findAvailableSlots(int count) {
+        return slotAllocator.claim(count);
+    }
+
+    public void release(ParkingSlot parkingSlot) {
+        parkingSlot.setStatus(ParkingSlot.SlotStatus.AVAILABLE);
+        slotAllocator.release(parkingSlot);
+    }
+
+    private Set<String> findExistingCodes(List<ParkingSlot> parkingSlots) {
+        List<String> codes = parkingSlots.stream().map(ParkingSlot::getCode).distinct().toList();
+        Set<String> existingCodes = new HashSet<>();
+
+        for (int i = 0; i < codes.size(); i += CODES_QUERY_CHUNK_SIZE) {
+            existingCodes.addAll(slotRepository.findExistingCodes(codes.subList(i, Math.min(i + CODES_QUERY_CHUNK_SIZE, codes.size()))));
+        }
+
+        return existingCodes;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BulkResult {
+        private final String code;
+        private final boolean created;
+        private final String message;
+
+        static BulkResult created(String code) {
+            return new BulkResult(code, true, null);
+        }
+
+        static BulkResult conflict(String code) {
+            return new BulkResult(code, false, String.format("Lot code=%s already registered", code));
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package com.jonasrosendo.demoparkingapi.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// unique and time ordered receipts without coordination between nodes: 41 bits of milliseconds since 2024-01-01,
+// 10 bits of parking.node-id and 12 bits of sequence, written as 13 zero padded base36 characters so the
+// string order is the generation order. Bursts over 4096 receipts in a millisecond borrow the next millisecond
+@Component
+public class ReceiptGenerator {
+
+    private static final int RECEIPT_LENGTH = 13;
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final long nodeBits;
+    private final Clock clock;
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last receipt
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public ReceiptGenerator(@Value("${parking.node-id:0}") int nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    public ReceiptGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException(String.format("parking.node-id should be between 0 and %d", MAX_NODE_ID));
+        }
+
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    public String next() {
+        long now = (clock.millis() - EPOCH) << SEQUENCE_BITS;
+        // never goes back, even when the clock does
+        long state = lastState.updateAndGet(last -> Math.max(last + 1, now));
+
+        long millis = state >>> SEQUENCE_BITS;
+        long sequence = state & SEQUENCE_MASK;
+        return encode((millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence);
+    }
+
+    private static String encode(long value) {
+        char[] chars = new char[RECEIPT_LENGTH];
+
+        for (int i = RECEIPT_LENGTH - 1; i >= 0; i--) {
+            chars[i] = DIGITS[(int) (value % 36)];
+            value /= 36;
+        }
+
+        return new String(chars);
+    }
+}
@@ -0,0 +1,210 @@
+package com.jonasrosendo.demoparkingapi.services;
+
+import com.jonasrosendo.demoparkingapi.configs.TariffProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+// parking.tariff schedule compiled at startup into integer cents tables, so a price is a few array reads with no
+// allocation: the blocks become a cents by minute table and the increments a prefix sum over the day for every
+// minute an increment grid can start at, which makes the time of day bands and the daily cap O(days of the stay)
+@Component
+public class TariffEngine {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int[] blockCents;
+    private final int blocksMinutes;
+    private final int incrementMinutes;
+    private final int incrementsPerDay;
+    // prefixCents[residue * (incrementsPerDay + 1) + i]: cents of the first i increments of the grid starting at
+    // minute of the day residue, residue < incrementMinutes
+    private final long[] prefixCents;
+    private final long dailyCapCents;
+    private final int loyaltyEvery;
+    private final int loyaltyDiscountPercent;
+    private final String version;
+
+    public TariffEngine(TariffProperties properties) {
+        List<TariffProperties.Block> blocks = properties.getBlocks();
+        this.incrementMinutes = properties.getIncrementMinutes();
+
+        if (blocks.isEmpty()) {
+            throw new IllegalArgumentException("parking.tariff.blocks should have at least one block");
+        }
+
+        if (incrementMinutes <= 0 || MINUTES_PER_DAY % incrementMinutes != 0) {
+            throw new IllegalArgumentException("parking.tariff.increment-minutes should divide 24h");
+        }
+
+        if (properties.getLoyaltyEvery() <= 0) {
+            throw new IllegalArgumentException("parking.tariff.loyalty-every should be positive");
+        }
+
+        this.blocksMinutes = blocks.get(blocks.size() - 1).getMinutes();
+        this.blockCents = compileBlocks(blocks, blocksMinutes);
+        this.incrementsPerDay = MINUTES_PER_DAY / incrementMinutes;
+        this.prefixCents = compileIncrements(properties);
+        this.dailyCapCents = properties.getDailyCapCents();
+        this.loyaltyEvery = properties.getLoyaltyEvery();
+        this.loyaltyDiscountPercent = properties.getLoyaltyDiscountPercent();
+        this.version = version(properties);
+    }
+
+    // changes with any field of the schedule, receipts carry it so gates can tell which tariff to estimate with
+    public String getVersion() {
+        return version;
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public long priceCents(LocalDateTime checkIn, LocalDateTime checkout) {
+        long minutes = Math.max(0, checkIn.until(checkout, ChronoUnit.MINUTES));
+        return priceCents(checkIn.getHour() * 60 + checkIn.getMinute(), minutes);
+    }
+
+    public long priceCents(int checkInMinuteOfDay, long minutes) {
+        if (minutes <= blocksMinutes) {
+            return capped(blockCents[(int) minutes]);
+        }
+
+        long increments = ceilDiv(minutes - blocksMinutes, incrementMinutes);
+        int firstIncrement = (checkInMinuteOfDay + blocksMinutes) % MINUTES_PER_DAY;
+        int row = (firstIncrement % incrementMinutes) * (incrementsPerDay + 1);
+        int offset = firstIncrement / incrementMinutes;
+
+        if (dailyCapCents <= 0) {
+            return blockCents[blocksMinutes] + incrementCents(row, offset, 0, increments);
+        }
+
+        long total = 0;
+        long days = ceilDiv(minutes, MINUTES_PER_DAY);
+
+        for (long day = 0; day < days; day++) {
+            // increments starting inside this day of the stay
+            long from = clamp(ceilDiv(day * MINUTES_PER_DAY - blocksMinutes, incrementMinutes), increments);
+            long to = clamp(ceilDiv((day + 1) * MINUTES_PER_DAY - blocksMinutes, incrementMinutes), increments);
+            long dayCents = incrementCents(row, offset, from, to) + (day == 0 ? blockCents[blocksMinutes] : 0);
+            total += Math.min(dayCents, dailyCapCents);
+        }
+
+        return total;
+    }
+
+    // numberOfParking is the count of completed parkings before this one
+    public long discountCents(long priceCents, long numberOfParking) {
+        if (numberOfParking <= 0 || numberOfParking % loyaltyEvery != 0) {
+            return 0;
+        }
+
+        long hundredths = priceCents * loyaltyDiscountPercent;
+        long cents = hundredths / 100;
+        long remainder = hundredths % 100;
+
+        // half even, like BigDecimal's setScale
+        if (remainder > 50 || (remainder == 50 && (cents & 1) == 1)) {
+            cents++;
+        }
+
+        return cents;
+    }
+
+    private long capped(long cents) {
+        return dailyCapCents > 0 ? Math.min(cents, dailyCapCents) : cents;
+    }
+
+    // cents of the increments from (inclusive) to (exclusive), the grid wraps around the day every incrementsPerDay
+    private long incrementCents(int row, int offset, long from, long to) {
+        return prefix(row, offset + to) - prefix(row, offset + from);
+    }
+
+    private long prefix(int row, long increments) {
+        return (increments / incrementsPerDay) * prefixCents[row + incrementsPerDay]
+                + prefixCents[row + (int) (increments % incrementsPerDay)];
+    }
+
+    private static int[] compileBlocks(List<TariffProperties.Block> blocks, int blocksMinutes) {
+        int[] cents = new int[blocksMinutes + 1];
+        int minute = 0;
+        int previous = 0;
+
+        for (TariffProperties.Block block : blocks) {
+            // a block past the last one means they are out of order, checked before it overruns the table
+            if (block.getMinutes() <= previous || block.getMinutes() > blocksMinutes
+                    || block.getMinutes() >= MINUTES_PER_DAY) {
+                throw new IllegalArgumentException("parking.tariff.blocks should be in ascending minutes, under 24h");
+            }
+
+            for (; minute <= block.getMinutes(); minute++) {
+                cents[minute] = block.getCents();
+            }
+
+            previous = block.getMinutes();
+        }
+
+        return cents;
+    }
+
+    private long[] compileIncrements(TariffProperties properties) {
+        int[] centsByMinute = new int[MINUTES_PER_DAY];
+        Arrays.fill(centsByMinute, properties.getIncrementCents());
+
+        for (TariffProperties.Band band : properties.getBands()) {
+            int from = band.getFrom().toSecondOfDay() / 60;
+            int to = band.getTo().toSecondOfDay() / 60;
+            // to == from is the whole day
+            int length = Math.floorMod(to - from - 1, MINUTES_PER_DAY) + 1;
+
+            for (int i = 0; i < length; i++) {
+                centsByMinute[(from + i) % MINUTES_PER_DAY] = band.getCents();
+            }
+        }
+
+        long[] prefix = new long[incrementMinutes * (incrementsPerDay + 1)];
+
+        for (int residue = 0; residue < incrementMinutes; residue++) {
+            int row = residue * (incrementsPerDay + 1);
+
+            for (int i = 0; i < incrementsPerDay; i++) {
+                prefix[row + i + 1] = prefix[row + i] + centsByMinute[residue + i * incrementMinutes];
+            }
+        }
+
+        return prefix;
+    }
+
+    private static String version(TariffProperties properties) {
+        StringBuilder schedule = new StringBuilder();
+        properties.getBlocks().forEach(block -> schedule.append(block.getMinutes()).append('=').append(block.getCents()).append(','));
+        schedule.append(';').append(properties.getIncrementMinutes()).append('=').append(properties.getIncrementCents()).append(';');
+        properties.getBands().forEach(band -> schedule.append(band.getFrom()).append('-').append(band.getTo())
+                .append('=').append(band.getCents()).append(','));
+        schedule.append(';').append(properties.getDailyCapCents())
+                .append(';').append(properties.getLoyaltyEvery()).append('=').append(properties.getLoyaltyDiscountPercent());
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(schedule.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+
+    private static long clamp(long value, long max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
@@ -0,0 +1,175 @@
+package com.jonasrosendo.demoparkingapi.services;
+
+import com.jonasrosendo.demoparkingapi.configs.TariffProperties;
+import com.jonasrosendo.demoparkingapi.repositories.projection.ClosedSessionProjection;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+// replays closed sessions through a candidate tariff. Rows are read from a single cursor into primitive chunks that
+// are priced on a fork-join pool while the next chunk is read, at most 2 chunks per worker are kept in memory. The
+// cursor only covers checkouts in [from, to), the loyalty discount starts from one grouped count of the sessions each
+// customer finished before from, so it sees the same parking count the checkout did
+@Service
+public class TariffSimulationService {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int SPLIT_THRESHOLD = 1024;
+
+    private final CustomerHasSlotService customerHasSlotService;
+    private final ForkJoinPool pool;
+    private final int maxChunksInFlight;
+
+    public TariffSimulationService(
+            CustomerHasSlotService customerHasSlotService,
+            @Value("${parking.tariff-simulation.parallelism:0}") int parallelism
+    ) {
+        this.customerHasSlotService = customerHasSlotService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxChunksInFlight = pool.getParallelism() * 2;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Transactional(readOnly = true)
+    public TariffSimulation simulate(LocalDateTime from, LocalDateTime to, TariffProperties tariff) {
+        TariffEngine candidate = new TariffEngine(tariff);
+        TariffSimulation simulation = new TariffSimulation();
+        Deque<ForkJoinTask<TariffSimulation>> inFlight = new ArrayDeque<>();
+
+        Map<Long, Long> completed = new HashMap<>(customerHasSlotService.findTotalNumberOfParkingCompleteBefore(from));
+
+        try (Stream<ClosedSessionProjection> sessions = customerHasSlotService.streamAllClosedBetween(from, to)) {
+            Iterator<ClosedSessionProjection> iterator = sessions.iterator();
+            SessionChunk chunk = new SessionChunk();
+
+            while (iterator.hasNext()) {
+                ClosedSessionProjection session = iterator.next();
+                long numberOfParking = completed.merge(session.getCustomerId(), 1L, Long::sum) - 1;
+
+                chunk.add(session, numberOfParking);
+
+                if (chunk.size == CHUNK_SIZE) {
+                    submit(inFlight, simulation, new PriceTask(candidate, chunk, 0, chunk.size));
+                    chunk = new SessionChunk();
+                }
+            }
+
+            if (chunk.size > 0) {
+                submit(inFlight, simulation, new PriceTask(candidate, chunk, 0, chunk.size));
+            }
+
+            while (!inFlight.isEmpty()) {
+                simulation.merge(inFlight.poll().join());
+            }
+        } finally {
+            inFlight.forEach(task -> task.cancel(true));
+        }
+
+        return simulation;
+    }
+
+    private void submit(Deque<ForkJoinTask<TariffSimulation>> inFlight, TariffSimulation simulation, PriceTask task) {
+        // back pressure on the cursor: wait for the oldest chunk before reading more rows
+        if (inFlight.size() >= maxChunksInFlight) {
+            simulation.merge(inFlight.poll().join());
+        }
+
+        inFlight.add(pool.submit(task));
+    }
+
+    // totals in cents by hour of the check-in
+    @Getter
+    public static class TariffSimulation {
+        public static final int HOURS = 24;
+
+        private final long[] sessions = new long[HOURS];
+        private final long[] currentCents = new long[HOURS];
+        private final long[] candidateCents = new long[HOURS];
+
+        void merge(TariffSimulation other) {
+            for (int hour = 0; hour < HOURS; hour++) {
+                sessions[hour] += other.sessions[hour];
+                currentCents[hour] += other.currentCents[hour];
+                candidateCents[hour] += other.candidateCents[hour];
+            }
+        }
+    }
+
+    private static class SessionChunk {
+        private final int[] checkInMinuteOfDay = new int[CHUNK_SIZE];
+        private final long[] minutes = new long[CHUNK_SIZE];
+        private final long[] numberOfParking = new long[CHUNK_SIZE];
+        private final long[] currentCents = new long[CHUNK_SIZE];
+        private int size;
+
+        void add(ClosedSessionProjection session, long numberOfParking) {
+            LocalDateTime checkIn = session.getCheckIn();
+            this.checkInMinuteOfDay[size] = checkIn.getHour() * 60 + checkIn.getMinute();
+            this.minutes[size] = Math.max(0, checkIn.until(session.getCheckout(), ChronoUnit.MINUTES));
+            this.numberOfParking[size] = numberOfParking;
+            this.currentCents[size] = toCents(session.getPrice()) - toCents(session.getDiscount());
+            size++;
+        }
+
+        private static long toCents(BigDecimal amount) {
+            return amount == null ? 0 : amount.movePointRight(2).longValue();
+        }
+    }
+
+    private static class PriceTask extends RecursiveTask<TariffSimulation> {
+        private final TariffEngine candidate;
+        private final SessionChunk chunk;
+        private final int from;
+        private final int to;
+
+        PriceTask(TariffEngine candidate, SessionChunk chunk, int from, int to) {
+            this.candidate = candidate;
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TariffSimulation compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                PriceTask left = new PriceTask(candidate, chunk, from, middle);
+                left.fork();
+                TariffSimulation simulation = new PriceTask(candidate, chunk, middle, to).compute();
+                simulation.merge(left.join());
+                return simulation;
+            }
+
+            TariffSimulation simulation = new TariffSimulation();
+
+            for (int i = from; i < to; i++) {
+                int hour = chunk.checkInMinuteOfDay[i] / 60;
+                long price = candidate.priceCents(chunk.checkInMinuteOfDay[i], chunk.minutes[i]);
+                simulation.sessions[hour]++;
+                simulation.currentCents[hour] += chunk.currentCents[i];
+                simulation.candidateCents[hour] += price - candidate.discountCents(price, chunk.numberOfParking[i]);
+            }
+
+            return simulation;
+        }
+    }
+}
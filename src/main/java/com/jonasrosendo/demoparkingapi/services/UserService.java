@@ -4,13 +4,20 @@ import com.jonasrosendo.demoparkingapi.entities.User;
 import com.jonasrosendo.demoparkingapi.exceptions.EntityNotFoundException;
 import com.jonasrosendo.demoparkingapi.exceptions.PasswordInvalidException;
 import com.jonasrosendo.demoparkingapi.exceptions.UsernameUniqueViolationException;
+import com.jonasrosendo.demoparkingapi.jwt.JwtTokenRevocations;
 import com.jonasrosendo.demoparkingapi.repositories.UserRepository;
+import com.jonasrosendo.demoparkingapi.repositories.projection.UserProjection;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Service
@@ -18,12 +25,14 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JwtTokenRevocations tokenRevocations;
+    private final Clock clock;
 
     @Transactional
     public User save(User user) {
         try {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
-            return userRepository.save(user);
+            return userRepository.saveAndFlush(user);
         } catch (org.springframework.dao.DataIntegrityViolationException e) {
             throw new UsernameUniqueViolationException(
                     String.format("Username {%s} already registered", user.getUsername())
@@ -52,12 +61,25 @@ public class UserService {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        // tokens issued with the old password stop working
+        tokenRevocations.revoke(user.getId(), LocalDateTime.now(clock));
         return userRepository.save(user);
     }
 
+    // up to limit users after the id, the first ones when it is null
     @Transactional(readOnly = true)
-    public List<User> findAll() {
-        return userRepository.findAll();
+    public List<UserProjection> findAll(Long afterId, int limit) {
+        return afterId == null
+                ? userRepository.findPage(PageRequest.ofSize(limit))
+                : userRepository.findPageAfter(afterId, PageRequest.ofSize(limit));
+    }
+
+    // every user ordered by id, read from a cursor and handed to action row by row inside this transaction
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<UserProjection> action) {
+        try (Stream<UserProjection> users = userRepository.streamAllProjections()) {
+            users.forEach(action);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -68,7 +90,9 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    public User.Role findRoleByUsername(String username) {
-        return userRepository.findRoleByUsername(username);
+    public UserProjection findProjectionByUsername(String username) {
+        return userRepository.findProjectionByUsername(username).orElseThrow(
+                () -> new EntityNotFoundException(String.format("User username=%s not found", username))
+        );
     }
 }
@@ -0,0 +1,62 @@
+package com.jonasrosendo.demoparkingapi.utils;
+
+import com.jonasrosendo.demoparkingapi.exceptions.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// position after the last row of a page ordered by (check_in, id), sent to clients as opaque url safe base64
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime checkIn;
+    private final Long id;
+
+    public String encode() {
+        String position = checkIn.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // cursor of tables paged by primary key only
+    public static String encodeId(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null or blank is the first page
+    public static Long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(String.format("Invalid cursor '%s'", cursor));
+        }
+    }
+
+    // null or blank is the first page
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException(String.format("Invalid cursor '%s'", cursor));
+        }
+    }
+}
@@ -8,8 +8,8 @@ import com.jonasrosendo.demoparkingapi.services.CustomerService;
 import com.jonasrosendo.demoparkingapi.services.UserService;
 import com.jonasrosendo.demoparkingapi.web.dtos.customer.CustomerCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.mappers.CustomerMapper;
-import com.jonasrosendo.demoparkingapi.web.mappers.PageableMapper;
 import com.jonasrosendo.demoparkingapi.web.vos.PageableResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.SliceResponseVO;
 import com.jonasrosendo.demoparkingapi.web.vos.customer.CustomerResponseVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,8 +21,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -155,15 +155,22 @@ public class CustomerController {
                             hidden = true,
                             content = @Content(schema = @Schema(type = "string", defaultValue = "id,asc")),
                             description = "Sort elements"
+                    ),
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "slice",
+                            content = @Content(schema = @Schema(type = "boolean", defaultValue = "false")),
+                            description = "SliceResponseVO with hasNext instead of totalPages and totalElements, " +
+                                    "skips the count"
                     )
             },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Success",
+                            description = "Success, PageableResponseVO by default, SliceResponseVO in slice mode",
                             content = @Content(
                                     mediaType = "application/json;charset=UTF-8",
-                                    schema = @Schema(implementation = PageableResponseVO.class)
+                                    schema = @Schema(oneOf = {PageableResponseVO.class, SliceResponseVO.class})
                             )
                     ),
                     @ApiResponse(
@@ -178,13 +185,13 @@ public class CustomerController {
     )
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<PageableResponseVO> findAll(
+    public ResponseEntity<Slice<CustomerProjection>> findAll(
+            @Parameter(hidden = true) @RequestParam(defaultValue = "false") boolean slice,
             @Parameter(hidden = true)
             @PageableDefault(size = 5, sort = {"name"})
             Pageable pageable
     ) {
-        Page<CustomerProjection> customerPage = customerService.findAll(pageable);
-        return ResponseEntity.ok(PageableMapper.toPageableVO(customerPage));
+        return ResponseEntity.ok(slice ? customerService.findSlice(pageable) : customerService.findAll(pageable));
     }
 
     @Operation(
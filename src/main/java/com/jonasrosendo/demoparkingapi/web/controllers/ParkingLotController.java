@@ -1,16 +1,33 @@
 package com.jonasrosendo.demoparkingapi.web.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonasrosendo.demoparkingapi.configs.TariffProperties;
 import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
 import com.jonasrosendo.demoparkingapi.exceptions.ErrorMessage;
 import com.jonasrosendo.demoparkingapi.jwt.JwtUserDetails;
+import com.jonasrosendo.demoparkingapi.jwt.ReceiptTokens;
 import com.jonasrosendo.demoparkingapi.repositories.projection.CustomerHasLotsProjection;
 import com.jonasrosendo.demoparkingapi.services.CustomerHasSlotService;
 import com.jonasrosendo.demoparkingapi.services.ParkingLotService;
+import com.jonasrosendo.demoparkingapi.services.TariffSimulationService;
+import com.jonasrosendo.demoparkingapi.utils.KeysetCursor;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.CheckoutBatchDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.CustomerHasSlotBatchCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.CustomerHasSlotCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.SessionExportDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.TariffSimulationDTO;
 import com.jonasrosendo.demoparkingapi.web.mappers.CustomerHasSlotMapper;
-import com.jonasrosendo.demoparkingapi.web.mappers.PageableMapper;
+import com.jonasrosendo.demoparkingapi.web.mappers.TariffMapper;
+import com.jonasrosendo.demoparkingapi.web.serializers.CsvWriter;
+import com.jonasrosendo.demoparkingapi.web.serializers.NdjsonWriter;
+import com.jonasrosendo.demoparkingapi.web.vos.CursorPageResponseVO;
 import com.jonasrosendo.demoparkingapi.web.vos.PageableResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.SliceResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CheckoutBatchResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CustomerHasSlotBatchResponseVO;
 import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CustomerHasSlotResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ReceiptVerificationResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.TariffSimulationResponseVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -22,18 +39,22 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Tag(name = "Parking lot", description = "All operations related to parking lot control")
 @RequiredArgsConstructor
@@ -41,8 +62,14 @@ import java.net.URI;
 @RequestMapping("api/v1/parking-lots")
 public class ParkingLotController {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final ParkingLotService parkingLotService;
     private final CustomerHasSlotService customerHasSlotService;
+    private final TariffSimulationService tariffSimulationService;
+    private final ReceiptTokens receiptTokens;
+    private final TariffProperties tariffProperties;
+    private final ObjectMapper objectMapper;
 
     @Operation(
             summary = "Register a customer to an available slot",
@@ -88,7 +115,8 @@ public class ParkingLotController {
     public ResponseEntity<CustomerHasSlotResponseVO> checkIn(@RequestBody @Valid CustomerHasSlotCreateDTO customerHasSlotCreateDTO) {
 
         CustomerHasSlot customerHasSlot = CustomerHasSlotMapper.toCustomerHasSlot(customerHasSlotCreateDTO);
-        CustomerHasSlotResponseVO response = CustomerHasSlotMapper.toCustomerHasSlotResponseVO(parkingLotService.checkIn(customerHasSlot));
+        CustomerHasSlot checkedIn = parkingLotService.checkIn(customerHasSlot);
+        CustomerHasSlotResponseVO response = CustomerHasSlotMapper.toCheckInResponseVO(checkedIn, receiptTokens.issue(checkedIn));
 
         URI location = ServletUriComponentsBuilder
                 .fromCurrentRequestUri()
@@ -99,6 +127,48 @@ public class ParkingLotController {
         return ResponseEntity.created(location).body(response);
     }
 
+    @Operation(
+            summary = "Register a list of customers to available slots",
+            description = "Register a fleet or a group arriving together in a single call, " +
+                    "each check-in gets its receipt or the reason it failed",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success, check the result of each check-in",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = CustomerHasSlotBatchResponseVO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "422",
+                            description = "Invalid input not possible to process data",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Not permitted to customers register themselves to an available slot",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    )
+            }
+    )
+    @PostMapping("/check-in/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CustomerHasSlotBatchResponseVO> checkInAll(@RequestBody @Valid CustomerHasSlotBatchCreateDTO batchCreateDTO) {
+        List<CustomerHasSlot> customerHasSlots = CustomerHasSlotMapper.toCustomerHasSlots(batchCreateDTO);
+        List<ParkingLotService.CheckInResult> results = parkingLotService.checkInAll(customerHasSlots);
+        return ResponseEntity.ok(CustomerHasSlotMapper.toCustomerHasSlotBatchResponseVO(results, receiptTokens::issue));
+    }
+
     @Operation(
             summary = "Find a receipt",
             description = "Find a receipt",
@@ -130,7 +200,7 @@ public class ParkingLotController {
     @GetMapping("/check-in/{receipt}")
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
     public ResponseEntity<CustomerHasSlotResponseVO> findByReceipt(@PathVariable String receipt) {
-        CustomerHasSlot customerHasSlot = customerHasSlotService.findByReceipt(receipt);
+        CustomerHasSlot customerHasSlot = customerHasSlotService.findOpenByReceipt(receipt);
         CustomerHasSlotResponseVO customerHasSlotResponseVO = CustomerHasSlotMapper.toCustomerHasSlotResponseVO(customerHasSlot);
         return ResponseEntity.ok(customerHasSlotResponseVO);
     }
@@ -172,15 +242,215 @@ public class ParkingLotController {
         return ResponseEntity.ok(customerHasSlotResponseVO);
     }
 
+    @Operation(
+            summary = "Checkout a list of receipts",
+            description = "Checkout a list of receipts in a single call, " +
+                    "each receipt gets its price and discount or the reason it failed",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success, check the result of each receipt",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = CheckoutBatchResponseVO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "422",
+                            description = "Invalid input not possible to process data",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Not permitted to customers register checkout",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    )
+            }
+    )
+    @PutMapping("/checkout/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CheckoutBatchResponseVO> checkoutAll(@RequestBody @Valid CheckoutBatchDTO checkoutBatchDTO) {
+        List<ParkingLotService.CheckoutResult> results = parkingLotService.checkoutAll(checkoutBatchDTO.getReceipts());
+        return ResponseEntity.ok(CustomerHasSlotMapper.toCheckoutBatchResponseVO(results));
+    }
+
+    @Operation(
+            summary = "Get what exit gates need to verify receipt tokens",
+            description = "Public key and algorithm the receipt tokens are signed with, and the current tariff with " +
+                    "its version, so a gate verifies a receipt and estimates its price without calling the api",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ReceiptVerificationResponseVO.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/receipts/verification")
+    public ResponseEntity<ReceiptVerificationResponseVO> getReceiptVerification() {
+        return ResponseEntity.ok(new ReceiptVerificationResponseVO(
+                ReceiptTokens.ALGORITHM,
+                ReceiptTokens.AUDIENCE,
+                receiptTokens.getPublicKey(),
+                receiptTokens.getTariffVersion(),
+                TariffMapper.toTariffDTO(tariffProperties)
+        ));
+    }
+
+    @Operation(
+            summary = "Simulate a tariff over closed parkings",
+            description = "Replays the parkings with checkout in the range through a candidate tariff and returns " +
+                    "the current and candidate revenue, in total and by hour of the check-in",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = TariffSimulationResponseVO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "422",
+                            description = "Invalid input not possible to process data",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Not permitted to customers simulate tariffs",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    )
+            }
+    )
+    @PostMapping("/tariff-simulations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TariffSimulationResponseVO> simulateTariff(@RequestBody @Valid TariffSimulationDTO simulationDTO) {
+        TariffSimulationService.TariffSimulation simulation = tariffSimulationService.simulate(
+                simulationDTO.getFrom(),
+                simulationDTO.getTo(),
+                TariffMapper.toTariffProperties(simulationDTO.getTariff())
+        );
+        return ResponseEntity.ok(TariffMapper.toTariffSimulationResponseVO(simulation));
+    }
+
+    @Operation(
+            summary = "export all parking sessions in a date range",
+            description = "Sessions of every customer with check-in in [from, to), ordered by check-in and streamed " +
+                    "as csv with a header row",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "from",
+                            required = true,
+                            content = @Content(schema = @Schema(type = "string", example = "2024-03-01 00:00:00")),
+                            description = "First check-in, inclusive"
+                    ),
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "to",
+                            required = true,
+                            content = @Content(schema = @Schema(type = "string", example = "2024-04-01 00:00:00")),
+                            description = "Last check-in, exclusive"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(mediaType = "text/csv")
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Not permitted to customers export sessions",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "422",
+                            description = "Missing dates or from not before to",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    )
+            }
+    )
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllParking(
+            @Parameter(hidden = true) @Valid SessionExportDTO exportDTO
+    ) {
+        StreamingResponseBody body = out -> {
+            try (CsvWriter csv = new CsvWriter(out)) {
+                CustomerHasSlotMapper.writeCsvHeader(csv);
+                customerHasSlotService.forEachByCheckInBetween(
+                        exportDTO.getFrom(),
+                        exportDTO.getTo(),
+                        session -> CustomerHasSlotMapper.writeCsvRow(csv, session)
+                );
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"parking-sessions.csv\"")
+                .body(body);
+    }
+
     @Operation(
             summary = "find all customer parking by cpf",
             description = "find all customer parking by cpf",
             security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "cursor",
+                            content = @Content(schema = @Schema(type = "string")),
+                            description = "Keyset mode ordered by check-in: empty for the first page, then the " +
+                                    "next_cursor of the previous page. Ignores page and sort and skips the count"
+                    ),
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "slice",
+                            content = @Content(schema = @Schema(type = "boolean", defaultValue = "false")),
+                            description = "SliceResponseVO with hasNext instead of totalPages and totalElements, " +
+                                    "skips the count"
+                    )
+            },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Success",
-                            content = @Content(schema = @Schema(implementation = PageableResponseVO.class))
+                            description = "Success, PageableResponseVO by default, CursorPageResponseVO in keyset mode, " +
+                                    "SliceResponseVO in slice mode",
+                            content = @Content(schema = @Schema(oneOf = {
+                                    PageableResponseVO.class, CursorPageResponseVO.class, SliceResponseVO.class
+                            }))
                     ),
                     @ApiResponse(
                             responseCode = "403",
@@ -195,24 +465,97 @@ public class ParkingLotController {
     )
     @GetMapping("/cpf/{cpf}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<PageableResponseVO> findAllParkingByCpf(
+    public ResponseEntity<?> findAllParkingByCpf(
             @PathVariable String cpf,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean slice,
             @PageableDefault(size = 5, sort = "checkIn", direction = Sort.Direction.ASC) Pageable pageable
     ) {
-        Page<CustomerHasLotsProjection> projection = customerHasSlotService.findAllByCustomerCpf(cpf, pageable);
-        PageableResponseVO pageableResponseVO = PageableMapper.toPageableVO(projection);
-        return ResponseEntity.ok(pageableResponseVO);
+        if (cursor != null) {
+            int size = pageable.getPageSize();
+            List<CustomerHasLotsProjection> rows = customerHasSlotService.findAllByCustomerCpf(cpf, KeysetCursor.decode(cursor), size + 1);
+            return ResponseEntity.ok(CustomerHasSlotMapper.toCursorPageResponseVO(rows, size));
+        }
+
+        if (slice) {
+            return ResponseEntity.ok(customerHasSlotService.findSliceByCustomerCpf(cpf, pageable));
+        }
+
+        return ResponseEntity.ok(customerHasSlotService.findAllByCustomerCpf(cpf, pageable));
+    }
+
+    @Operation(
+            summary = "export all customer parking by cpf",
+            description = "Whole parking history of the customer ordered by check-in, streamed as one json " +
+                    "object per line",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(
+                                    mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = CustomerHasLotsProjection.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Not permitted to customers export customers' parking",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    )
+            }
+    )
+    @GetMapping("/cpf/{cpf}/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllParkingByCpf(@PathVariable String cpf) {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter<CustomerHasLotsProjection> writer = new NdjsonWriter<>(objectMapper, CustomerHasLotsProjection.class, out)) {
+                customerHasSlotService.forEachByCustomerCpf(cpf, writer::write);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                // the cpf comes straight from the path, the builder quotes and escapes it in the file name
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("parking-" + cpf + ".ndjson")
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @Operation(
             summary = "find all customer parking by id",
             description = "find all customer parking by id",
             security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "cursor",
+                            content = @Content(schema = @Schema(type = "string")),
+                            description = "Keyset mode ordered by check-in: empty for the first page, then the " +
+                                    "next_cursor of the previous page. Ignores page and sort and skips the count"
+                    ),
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "slice",
+                            content = @Content(schema = @Schema(type = "boolean", defaultValue = "false")),
+                            description = "SliceResponseVO with hasNext instead of totalPages and totalElements, " +
+                                    "skips the count"
+                    )
+            },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Success",
-                            content = @Content(schema = @Schema(implementation = PageableResponseVO.class))
+                            description = "Success, PageableResponseVO by default, CursorPageResponseVO in keyset mode, " +
+                                    "SliceResponseVO in slice mode",
+                            content = @Content(schema = @Schema(oneOf = {
+                                    PageableResponseVO.class, CursorPageResponseVO.class, SliceResponseVO.class
+                            }))
                     ),
                     @ApiResponse(
                             responseCode = "403",
@@ -227,12 +570,22 @@ public class ParkingLotController {
     )
     @GetMapping
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<PageableResponseVO> findAllParkingById(
+    public ResponseEntity<?> findAllParkingById(
             @AuthenticationPrincipal JwtUserDetails jwtUserDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean slice,
             @PageableDefault(size = 5, sort = "checkIn", direction = Sort.Direction.ASC) Pageable pageable
     ) {
-        Page<CustomerHasLotsProjection> projection = customerHasSlotService.findAllByUserId(jwtUserDetails.getId(), pageable);
-        PageableResponseVO pageableResponseVO = PageableMapper.toPageableVO(projection);
-        return ResponseEntity.ok(pageableResponseVO);
+        if (cursor != null) {
+            int size = pageable.getPageSize();
+            List<CustomerHasLotsProjection> rows = customerHasSlotService.findAllByUserId(jwtUserDetails.getId(), KeysetCursor.decode(cursor), size + 1);
+            return ResponseEntity.ok(CustomerHasSlotMapper.toCursorPageResponseVO(rows, size));
+        }
+
+        if (slice) {
+            return ResponseEntity.ok(customerHasSlotService.findSliceByUserId(jwtUserDetails.getId(), pageable));
+        }
+
+        return ResponseEntity.ok(customerHasSlotService.findAllByUserId(jwtUserDetails.getId(), pageable));
     }
 }
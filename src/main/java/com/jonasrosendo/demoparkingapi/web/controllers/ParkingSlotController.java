@@ -2,9 +2,14 @@ package com.jonasrosendo.demoparkingapi.web.controllers;
 
 import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
 import com.jonasrosendo.demoparkingapi.exceptions.ErrorMessage;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotEventBus;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotOccupancyService;
 import com.jonasrosendo.demoparkingapi.services.ParkingSlotService;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotBulkCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.mappers.ParkingSlotMapper;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ParkingSlotBulkResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ParkingSlotOccupancyResponseVO;
 import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ParkingSlotResponseVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.headers.Header;
@@ -15,13 +20,19 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 
 @Tag(name = "Parking slots", description = "All operations related to parking slots")
 @RequiredArgsConstructor
@@ -30,6 +41,11 @@ import java.net.URI;
 public class ParkingSlotController {
 
     private final ParkingSlotService parkingSlotService;
+    private final ParkingSlotOccupancyService occupancyService;
+    private final ParkingSlotEventBus eventBus;
+
+    @Value("${parking.slots.events.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
 
     @Operation(
             summary = "Create a new parking slot",
@@ -84,6 +100,102 @@ public class ParkingSlotController {
         return ResponseEntity.created(location).build();
     }
 
+    @Operation(
+            summary = "Create parking slots in bulk",
+            description = "Operation to create a list of parking slots and/or a range of codes, " +
+                    "codes already registered are reported as conflicts without aborting the others",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success, check the result of each slot",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ParkingSlotBulkResponseVO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "422",
+                            description = "Invalid input not possible to process data",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Not permitted to customers create new parking slots",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class
+                                    )
+                            )
+                    )
+            }
+    )
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ParkingSlotBulkResponseVO> createAll(@RequestBody @Valid ParkingSlotBulkCreateDTO bulkCreateDTO) {
+        List<ParkingSlot> parkingSlots = ParkingSlotMapper.toParkingSlots(bulkCreateDTO);
+        List<ParkingSlotService.BulkResult> results = parkingSlotService.saveAll(parkingSlots);
+        return ResponseEntity.ok(ParkingSlotMapper.toParkingSlotBulkResponseVO(results));
+    }
+
+    @Operation(
+            summary = "Get the parking occupancy",
+            description = "Operation to get the total, available and occupied slots, served from memory",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ParkingSlotOccupancyResponseVO.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/occupancy")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<ParkingSlotOccupancyResponseVO> getOccupancy() {
+        return ResponseEntity.ok(ParkingSlotMapper.toParkingSlotOccupancyResponseVO(occupancyService.getOccupancy()));
+    }
+
+    @Operation(
+            summary = "Stream slot changes",
+            description = "Server-Sent Events stream: 'occupancy' events with the totals, starting with the current ones, " +
+                    "and 'slot' events whenever a check-in or checkout changes a slot",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+                    )
+            }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public Flux<ServerSentEvent<Object>> stream() {
+        Flux<ServerSentEvent<Object>> occupancy = eventBus.occupancyEvents().map(event -> ServerSentEvent.builder()
+                .event("occupancy")
+                .data((Object) ParkingSlotMapper.toParkingSlotOccupancyResponseVO(event))
+                .build());
+
+        Flux<ServerSentEvent<Object>> slots = eventBus.slotEvents().map(event -> ServerSentEvent.builder()
+                .event("slot")
+                .data((Object) ParkingSlotMapper.toParkingSlotResponseVO(event))
+                .build());
+
+        // keeps idle connections from being closed by proxies
+        Flux<ServerSentEvent<Object>> heartbeat = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+
+        return Flux.merge(occupancy, slots, heartbeat);
+    }
+
     @Operation(
             summary = "Find slot by code",
             description = "Operation to get a lot from database through code",
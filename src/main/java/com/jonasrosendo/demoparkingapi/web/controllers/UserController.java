@@ -1,13 +1,19 @@
 package com.jonasrosendo.demoparkingapi.web.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jonasrosendo.demoparkingapi.entities.User;
 import com.jonasrosendo.demoparkingapi.exceptions.ErrorMessage;
+import com.jonasrosendo.demoparkingapi.repositories.projection.UserProjection;
 import com.jonasrosendo.demoparkingapi.services.UserService;
+import com.jonasrosendo.demoparkingapi.utils.KeysetCursor;
 import com.jonasrosendo.demoparkingapi.web.dtos.user.UserCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.dtos.user.UserPasswordDTO;
 import com.jonasrosendo.demoparkingapi.web.mappers.UserMapper;
+import com.jonasrosendo.demoparkingapi.web.serializers.NdjsonWriter;
 import com.jonasrosendo.demoparkingapi.web.vos.user.UserResponseVO;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -16,10 +22,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -30,6 +42,10 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${parking.users.list-max-size:1000}")
+    private int listMaxSize;
 
     @Operation(
             summary = "Create a new user",
@@ -158,12 +174,30 @@ public class UserController {
 
     @Operation(
             summary = "find all user",
-            description = "Operation to return all users",
+            description = "Operation to return all users ordered by id. Past parking.users.list-max-size users it " +
+                    "returns the first page of the keyset mode instead, with the next_cursor to carry on. /export " +
+                    "streams every user",
             security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "cursor",
+                            content = @Content(schema = @Schema(type = "string")),
+                            description = "Keyset mode: empty for the first page, then the next_cursor of the " +
+                                    "previous page"
+                    ),
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "size",
+                            content = @Content(schema = @Schema(type = "integer", defaultValue = "20")),
+                            description = "Max number of users per page in keyset mode"
+                    )
+            },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Success",
+                            description = "Success, CursorPageResponseVO in keyset mode or past " +
+                                    "parking.users.list-max-size users",
                             content = @Content(
                                     mediaType = "application/json",
                                     array = @ArraySchema(
@@ -171,6 +205,13 @@ public class UserController {
                                     )
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid cursor",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class)
+                            )
+                    ),
                     @ApiResponse(
                             responseCode = "403",
                             description = "User has not permission to access this resource",
@@ -182,8 +223,63 @@ public class UserController {
     )
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponseVO>> findAll() {
-        List<UserResponseVO> users = UserMapper.toUserResponseVOList(userService.findAll());
+    public ResponseEntity<?> findAll(
+            @RequestParam(required = false) String cursor,
+            @Parameter(hidden = true) @PageableDefault(size = 20) Pageable pageable
+    ) {
+        if (cursor != null) {
+            int size = pageable.getPageSize();
+            List<UserProjection> rows = userService.findAll(KeysetCursor.decodeId(cursor), size + 1);
+            return ResponseEntity.ok(UserMapper.toCursorPageResponseVO(rows, size));
+        }
+
+        // without a cursor the plain list while it fits, past it the first keyset page so the rest is not lost silently
+        List<UserProjection> rows = userService.findAll(null, listMaxSize + 1);
+
+        if (rows.size() > listMaxSize) {
+            return ResponseEntity.ok(UserMapper.toCursorPageResponseVO(rows, listMaxSize));
+        }
+
+        List<UserResponseVO> users = rows.stream()
+                .map(UserMapper::toUserResponseVO)
+                .toList();
         return ResponseEntity.ok(users);
     }
+
+    @Operation(
+            summary = "export all users",
+            description = "Every user ordered by id, streamed as one json object per line",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(
+                                    mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = UserResponseVO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "User has not permission to access this resource",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorMessage.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter<UserResponseVO> writer = new NdjsonWriter<>(objectMapper, UserResponseVO.class, out)) {
+                userService.forEach(user -> writer.write(UserMapper.toUserResponseVO(user)));
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(body);
+    }
 }
@@ -0,0 +1,30 @@
+package com.jonasrosendo.demoparkingapi.web.dtos.parking_lot;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutBatchDTO {
+
+    @NotEmpty
+    @Size(max = 500)
+    private List<@NotBlank String> receipts;
+
+    @JsonIgnore
+    @AssertTrue(message = "Receipts should not be repeated")
+    public boolean isReceiptsDistinct() {
+        return receipts == null || receipts.stream().distinct().count() == receipts.size();
+    }
+}
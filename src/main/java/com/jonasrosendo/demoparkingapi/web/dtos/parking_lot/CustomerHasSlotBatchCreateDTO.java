@@ -0,0 +1,25 @@
+package com.jonasrosendo.demoparkingapi.web.dtos.parking_lot;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerHasSlotBatchCreateDTO {
+
+    @JsonProperty(value = "check_ins")
+    @NotEmpty
+    @Size(max = 500)
+    @Valid
+    private List<CustomerHasSlotCreateDTO> checkIns;
+}
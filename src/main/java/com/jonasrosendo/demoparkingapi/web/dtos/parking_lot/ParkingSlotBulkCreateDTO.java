@@ -0,0 +1,32 @@
+package com.jonasrosendo.demoparkingapi.web.dtos.parking_lot;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class ParkingSlotBulkCreateDTO {
+
+    public static final int MAX_SLOTS = 5000;
+
+    @Valid
+    @Size(max = MAX_SLOTS)
+    private List<ParkingSlotCreateDTO> slots = new ArrayList<>();
+
+    @Valid
+    private ParkingSlotRangeDTO range;
+
+    @JsonIgnore
+    @AssertTrue(message = "Inform a list of slots and/or a range of codes")
+    public boolean isSlotsOrRangePresent() {
+        return (slots != null && !slots.isEmpty()) || range != null;
+    }
+}
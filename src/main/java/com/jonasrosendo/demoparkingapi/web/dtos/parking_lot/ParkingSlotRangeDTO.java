@@ -0,0 +1,46 @@
+package com.jonasrosendo.demoparkingapi.web.dtos.parking_lot;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// codes are prefix + zero padded number, e.g. prefix "A-" from 1 to 20 gives A-01..A-20
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class ParkingSlotRangeDTO {
+
+    @NotBlank
+    @Size(min = 1, max = 3)
+    private String prefix;
+
+    @NotNull
+    @Min(0)
+    private Integer from;
+
+    @NotNull
+    @Min(0)
+    private Integer to;
+
+    @NotBlank
+    @Pattern(regexp = "AVAILABLE|UNAVAILABLE")
+    private String status;
+
+    @JsonIgnore
+    @AssertTrue(message = "Range 'from' should be lower or equal to 'to' and have at most 5000 codes")
+    public boolean isRangeValid() {
+        return from == null || to == null || (from <= to && to - from < ParkingSlotBulkCreateDTO.MAX_SLOTS);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Range prefix and 'to' should fit in 4 characters, codes are zero padded to 4")
+    public boolean isCodeLengthValid() {
+        return prefix == null || to == null || prefix.length() + String.valueOf(to).length() <= 4;
+    }
+}
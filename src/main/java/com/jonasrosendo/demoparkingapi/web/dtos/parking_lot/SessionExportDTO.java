@@ -0,0 +1,29 @@
+package com.jonasrosendo.demoparkingapi.web.dtos.parking_lot;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// query parameters, sessions with check-in in [from, to)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class SessionExportDTO {
+
+    @NotNull
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime from;
+
+    @NotNull
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime to;
+
+    @AssertTrue(message = "Range 'from' should be before 'to'")
+    public boolean isRangeValid() {
+        return from == null || to == null || from.isBefore(to);
+    }
+}
@@ -0,0 +1,104 @@
+package com.jonasrosendo.demoparkingapi.web.dtos.parking_lot;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// same schedule as parking.tariff, amounts in cents
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class TariffDTO {
+
+    @Valid
+    @NotEmpty
+    private List<Block> blocks = new ArrayList<>();
+
+    @NotNull
+    @Min(1)
+    @JsonProperty("increment_minutes")
+    private Integer incrementMinutes;
+
+    @NotNull
+    @Min(0)
+    @JsonProperty("increment_cents")
+    private Integer incrementCents;
+
+    @Valid
+    private List<Band> bands = new ArrayList<>();
+
+    @Min(0)
+    @JsonProperty("daily_cap_cents")
+    private long dailyCapCents;
+
+    @Min(1)
+    @JsonProperty("loyalty_every")
+    private int loyaltyEvery = 10;
+
+    @Min(0)
+    @Max(100)
+    @JsonProperty("loyalty_discount_percent")
+    private int loyaltyDiscountPercent;
+
+    @JsonIgnore
+    @AssertTrue(message = "Increment minutes should divide 24h")
+    public boolean isIncrementValid() {
+        return incrementMinutes == null || incrementMinutes <= 0 || 24 * 60 % incrementMinutes == 0;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Blocks should be in ascending minutes, under 24h")
+    public boolean isBlocksValid() {
+        int previous = 0;
+
+        for (Block block : blocks == null ? List.<Block>of() : blocks) {
+            if (block.getMinutes() == null || block.getMinutes() <= previous || block.getMinutes() >= 24 * 60) {
+                return false;
+            }
+
+            previous = block.getMinutes();
+        }
+
+        return true;
+    }
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor
+    public static class Block {
+
+        @NotNull
+        @Min(1)
+        private Integer minutes;
+
+        @NotNull
+        @Min(0)
+        private Integer cents;
+    }
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor
+    public static class Band {
+
+        @NotNull
+        @JsonFormat(pattern = "HH:mm")
+        private LocalTime from;
+
+        @NotNull
+        @JsonFormat(pattern = "HH:mm")
+        private LocalTime to;
+
+        @NotNull
+        @Min(0)
+        private Integer cents;
+    }
+}
@@ -0,0 +1,36 @@
+package com.jonasrosendo.demoparkingapi.web.dtos.parking_lot;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// sessions with checkout in [from, to)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class TariffSimulationDTO {
+
+    @NotNull
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime from;
+
+    @NotNull
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime to;
+
+    @Valid
+    @NotNull
+    private TariffDTO tariff;
+
+    @JsonIgnore
+    @AssertTrue(message = "Range 'from' should be before 'to'")
+    public boolean isRangeValid() {
+        return from == null || to == null || from.isBefore(to);
+    }
+}
@@ -1,20 +1,165 @@
 package com.jonasrosendo.demoparkingapi.web.mappers;
 
+import com.jonasrosendo.demoparkingapi.entities.Customer;
 import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
+import com.jonasrosendo.demoparkingapi.repositories.projection.CustomerHasLotsProjection;
+import com.jonasrosendo.demoparkingapi.services.ParkingLotService;
+import com.jonasrosendo.demoparkingapi.utils.KeysetCursor;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.CustomerHasSlotBatchCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.CustomerHasSlotCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.serializers.CsvWriter;
+import com.jonasrosendo.demoparkingapi.web.vos.CursorPageResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CheckoutBatchResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CustomerHasSlotBatchResponseVO;
 import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CustomerHasSlotResponseVO;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class CustomerHasSlotMapper {
 
+    private static final String[] CSV_COLUMNS = {
+            "receipt", "customer_cpf", "car_plate", "car_brand", "car_model", "car_color", "parking_slot_code",
+            "check_in", "checkout", "price", "discount"
+    };
+    private static final DateTimeFormatter CSV_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     public static CustomerHasSlot toCustomerHasSlot(CustomerHasSlotCreateDTO customerHasSlotCreateDTO) {
-        return new ModelMapper().map(customerHasSlotCreateDTO, CustomerHasSlot.class);
+        Customer customer = new Customer();
+        customer.setCpf(customerHasSlotCreateDTO.getCustomerCpf());
+
+        CustomerHasSlot customerHasSlot = new CustomerHasSlot();
+        customerHasSlot.setCarPlate(customerHasSlotCreateDTO.getCarPlate());
+        customerHasSlot.setCarBrand(customerHasSlotCreateDTO.getCarBrand());
+        customerHasSlot.setCarModel(customerHasSlotCreateDTO.getCarModel());
+        customerHasSlot.setCarColor(customerHasSlotCreateDTO.getCarColor());
+        customerHasSlot.setCustomer(customer);
+        return customerHasSlot;
     }
 
     public static CustomerHasSlotResponseVO toCustomerHasSlotResponseVO(CustomerHasSlot customerHasSlot) {
-        return new ModelMapper().map(customerHasSlot, CustomerHasSlotResponseVO.class);
+        CustomerHasSlotResponseVO responseVO = new CustomerHasSlotResponseVO();
+        responseVO.setCarPlate(customerHasSlot.getCarPlate());
+        responseVO.setCarBrand(customerHasSlot.getCarBrand());
+        responseVO.setCarModel(customerHasSlot.getCarModel());
+        responseVO.setCarColor(customerHasSlot.getCarColor());
+        responseVO.setReceipt(customerHasSlot.getReceipt());
+        responseVO.setCheckIn(customerHasSlot.getCheckIn());
+        responseVO.setCheckout(customerHasSlot.getCheckout());
+        responseVO.setPrice(customerHasSlot.getPrice());
+        responseVO.setDiscount(customerHasSlot.getDiscount());
+
+        if (customerHasSlot.getCustomer() != null) {
+            responseVO.setCustomerCpf(customerHasSlot.getCustomer().getCpf());
+        }
+
+        if (customerHasSlot.getParkingSlot() != null) {
+            responseVO.setParkingSlotCode(customerHasSlot.getParkingSlot().getCode());
+        }
+
+        return responseVO;
+    }
+
+    public static CustomerHasSlotResponseVO toCheckInResponseVO(CustomerHasSlot customerHasSlot, String receiptToken) {
+        CustomerHasSlotResponseVO responseVO = toCustomerHasSlotResponseVO(customerHasSlot);
+        responseVO.setReceiptToken(receiptToken);
+        return responseVO;
+    }
+
+    // rows holds up to size + 1 sessions, the extra one only tells there is a next page
+    public static CursorPageResponseVO toCursorPageResponseVO(List<CustomerHasLotsProjection> rows, int size) {
+        if (rows.size() <= size) {
+            return new CursorPageResponseVO(rows, rows.size(), null);
+        }
+
+        List<CustomerHasLotsProjection> content = rows.subList(0, size);
+        CustomerHasLotsProjection last = content.get(size - 1);
+        return new CursorPageResponseVO(content, size, new KeysetCursor(last.getCheckIn(), last.getId()).encode());
+    }
+
+    public static void writeCsvHeader(CsvWriter csv) {
+        for (String column : CSV_COLUMNS) {
+            csv.field(column);
+        }
+
+        csv.endRow();
+    }
+
+    public static void writeCsvRow(CsvWriter csv, CustomerHasLotsProjection session) {
+        csv.field(session.getReceipt())
+                .field(session.getCustomerCpf())
+                .field(session.getCarPlate())
+                .field(session.getCarBrand())
+                .field(session.getCarModel())
+                .field(session.getCarColor())
+                .field(session.getParkingSlotCode())
+                .field(session.getCheckIn() == null ? null : CSV_DATE_TIME.format(session.getCheckIn()))
+                .field(session.getCheckout() == null ? null : CSV_DATE_TIME.format(session.getCheckout()))
+                .field(session.getPrice() == null ? null : session.getPrice().toPlainString())
+                .field(session.getDiscount() == null ? null : session.getDiscount().toPlainString());
+        csv.endRow();
+    }
+
+    public static List<CustomerHasSlot> toCustomerHasSlots(CustomerHasSlotBatchCreateDTO batchCreateDTO) {
+        return batchCreateDTO.getCheckIns().stream().map(CustomerHasSlotMapper::toCustomerHasSlot).toList();
+    }
+
+    public static CustomerHasSlotBatchResponseVO toCustomerHasSlotBatchResponseVO(
+            List<ParkingLotService.CheckInResult> results,
+            Function<CustomerHasSlot, String> receiptTokens
+    ) {
+        CustomerHasSlotBatchResponseVO responseVO = new CustomerHasSlotBatchResponseVO();
+
+        for (ParkingLotService.CheckInResult result : results) {
+            CustomerHasSlot customerHasSlot = result.getCustomerHasSlot();
+            CustomerHasSlotBatchResponseVO.Item item = new CustomerHasSlotBatchResponseVO.Item();
+            item.setCarPlate(customerHasSlot.getCarPlate());
+            item.setCustomerCpf(customerHasSlot.getCustomer().getCpf());
+
+            if (result.isCheckedIn()) {
+                responseVO.setCheckedIn(responseVO.getCheckedIn() + 1);
+                item.setReceipt(customerHasSlot.getReceipt());
+                item.setCheckIn(customerHasSlot.getCheckIn());
+                item.setParkingSlotCode(customerHasSlot.getParkingSlot().getCode());
+                item.setReceiptToken(receiptTokens.apply(customerHasSlot));
+            } else {
+                responseVO.setFailed(responseVO.getFailed() + 1);
+                item.setError(result.getError());
+            }
+
+            responseVO.getResults().add(item);
+        }
+
+        return responseVO;
+    }
+
+    public static CheckoutBatchResponseVO toCheckoutBatchResponseVO(List<ParkingLotService.CheckoutResult> results) {
+        CheckoutBatchResponseVO responseVO = new CheckoutBatchResponseVO();
+
+        for (ParkingLotService.CheckoutResult result : results) {
+            CheckoutBatchResponseVO.Item item = new CheckoutBatchResponseVO.Item();
+            item.setReceipt(result.getReceipt());
+
+            if (result.isCheckedOut()) {
+                CustomerHasSlot customerHasSlot = result.getCustomerHasSlot();
+                responseVO.setCheckedOut(responseVO.getCheckedOut() + 1);
+                item.setCustomerCpf(customerHasSlot.getCustomer().getCpf());
+                item.setCheckout(customerHasSlot.getCheckout());
+                item.setParkingSlotCode(customerHasSlot.getParkingSlot().getCode());
+                item.setPrice(customerHasSlot.getPrice());
+                item.setDiscount(customerHasSlot.getDiscount());
+            } else {
+                responseVO.setFailed(responseVO.getFailed() + 1);
+                item.setError(result.getError());
+            }
+
+            responseVO.getResults().add(item);
+        }
+
+        return responseVO;
     }
 }
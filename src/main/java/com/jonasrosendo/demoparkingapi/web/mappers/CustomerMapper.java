@@ -5,16 +5,18 @@ import com.jonasrosendo.demoparkingapi.web.dtos.customer.CustomerCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.vos.customer.CustomerResponseVO;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class CustomerMapper {
 
     public static Customer toCustomer(CustomerCreateDTO customerCreateDTO) {
-        return new ModelMapper().map(customerCreateDTO, Customer.class);
+        Customer customer = new Customer();
+        customer.setName(customerCreateDTO.getName());
+        customer.setCpf(customerCreateDTO.getCpf());
+        return customer;
     }
 
     public static CustomerResponseVO toCustomerResponseVO(Customer customer) {
-        return new ModelMapper().map(customer, CustomerResponseVO.class);
+        return new CustomerResponseVO(customer.getId(), customer.getName(), customer.getCpf());
     }
 }
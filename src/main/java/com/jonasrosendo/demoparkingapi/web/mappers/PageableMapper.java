@@ -1,15 +0,0 @@
-package com.jonasrosendo.demoparkingapi.web.mappers;
-
-import com.jonasrosendo.demoparkingapi.web.vos.PageableResponseVO;
-import lombok.AccessLevel;
-import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
-public class PageableMapper {
-
-    public static PageableResponseVO toPageableVO(Page page) {
-        return new ModelMapper().map(page, PageableResponseVO.class);
-    }
-}
@@ -1,20 +1,88 @@
 package com.jonasrosendo.demoparkingapi.web.mappers;
 
 import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotEventBus;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotOccupancyService;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotService;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotBulkCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotRangeDTO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ParkingSlotBulkResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ParkingSlotOccupancyResponseVO;
 import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ParkingSlotResponseVO;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ParkingSlotMapper {
 
     public static ParkingSlot toParkingSlot(ParkingSlotCreateDTO parkingSlotCreateDTO) {
-        return new ModelMapper().map(parkingSlotCreateDTO, ParkingSlot.class);
+        return toParkingSlot(parkingSlotCreateDTO.getCode(), parkingSlotCreateDTO.getStatus());
     }
 
     public static ParkingSlotResponseVO toParkingSlotResponseVO(ParkingSlot parkingSlot) {
-        return new ModelMapper().map(parkingSlot, ParkingSlotResponseVO.class);
+        return new ParkingSlotResponseVO(
+                parkingSlot.getId(),
+                parkingSlot.getCode(),
+                parkingSlot.getStatus() == null ? null : parkingSlot.getStatus().name()
+        );
+    }
+
+    public static List<ParkingSlot> toParkingSlots(ParkingSlotBulkCreateDTO bulkCreateDTO) {
+        List<ParkingSlot> parkingSlots = new ArrayList<>();
+
+        if (bulkCreateDTO.getSlots() != null) {
+            bulkCreateDTO.getSlots().forEach(dto -> parkingSlots.add(toParkingSlot(dto.getCode(), dto.getStatus())));
+        }
+
+        ParkingSlotRangeDTO range = bulkCreateDTO.getRange();
+
+        if (range != null) {
+            String format = "%s%0" + (4 - range.getPrefix().length()) + "d";
+
+            for (int number = range.getFrom(); number <= range.getTo(); number++) {
+                parkingSlots.add(toParkingSlot(String.format(format, range.getPrefix(), number), range.getStatus()));
+            }
+        }
+
+        return parkingSlots;
+    }
+
+    public static ParkingSlotBulkResponseVO toParkingSlotBulkResponseVO(List<ParkingSlotService.BulkResult> results) {
+        ParkingSlotBulkResponseVO responseVO = new ParkingSlotBulkResponseVO();
+
+        for (ParkingSlotService.BulkResult result : results) {
+            if (result.isCreated()) {
+                responseVO.setCreated(responseVO.getCreated() + 1);
+            } else {
+                responseVO.setConflicts(responseVO.getConflicts() + 1);
+            }
+
+            responseVO.getResults().add(new ParkingSlotBulkResponseVO.Item(
+                    result.getCode(),
+                    result.isCreated() ? "CREATED" : "CONFLICT",
+                    result.getMessage()
+            ));
+        }
+
+        return responseVO;
+    }
+
+    public static ParkingSlotResponseVO toParkingSlotResponseVO(ParkingSlotEventBus.SlotStatusEvent event) {
+        return new ParkingSlotResponseVO(event.getId(), event.getCode(), event.getStatus().name());
+    }
+
+    public static ParkingSlotOccupancyResponseVO toParkingSlotOccupancyResponseVO(ParkingSlotOccupancyService.Occupancy occupancy) {
+        return new ParkingSlotOccupancyResponseVO(occupancy.getTotal(), occupancy.getAvailable(), occupancy.getOccupied());
+    }
+
+    private static ParkingSlot toParkingSlot(String code, String status) {
+        ParkingSlot parkingSlot = new ParkingSlot();
+        parkingSlot.setCode(code);
+        parkingSlot.setStatus(ParkingSlot.SlotStatus.valueOf(status));
+        return parkingSlot;
     }
 }
@@ -0,0 +1,80 @@
+package com.jonasrosendo.demoparkingapi.web.mappers;
+
+import com.jonasrosendo.demoparkingapi.configs.TariffProperties;
+import com.jonasrosendo.demoparkingapi.services.TariffEngine;
+import com.jonasrosendo.demoparkingapi.services.TariffSimulationService;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.TariffDTO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.TariffSimulationResponseVO;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class TariffMapper {
+
+    public static TariffProperties toTariffProperties(TariffDTO tariffDTO) {
+        TariffProperties tariff = new TariffProperties();
+        tariff.setBlocks(new ArrayList<>(tariffDTO.getBlocks().stream()
+                .map(block -> new TariffProperties.Block(block.getMinutes(), block.getCents()))
+                .toList()));
+        tariff.setIncrementMinutes(tariffDTO.getIncrementMinutes());
+        tariff.setIncrementCents(tariffDTO.getIncrementCents());
+
+        if (tariffDTO.getBands() != null) {
+            tariff.setBands(new ArrayList<>(tariffDTO.getBands().stream()
+                    .map(band -> new TariffProperties.Band(band.getFrom(), band.getTo(), band.getCents()))
+                    .toList()));
+        }
+
+        tariff.setDailyCapCents(tariffDTO.getDailyCapCents());
+        tariff.setLoyaltyEvery(tariffDTO.getLoyaltyEvery());
+        tariff.setLoyaltyDiscountPercent(tariffDTO.getLoyaltyDiscountPercent());
+        return tariff;
+    }
+
+    public static TariffDTO toTariffDTO(TariffProperties tariff) {
+        TariffDTO tariffDTO = new TariffDTO();
+        tariffDTO.setBlocks(new ArrayList<>(tariff.getBlocks().stream()
+                .map(block -> new TariffDTO.Block(block.getMinutes(), block.getCents()))
+                .toList()));
+        tariffDTO.setIncrementMinutes(tariff.getIncrementMinutes());
+        tariffDTO.setIncrementCents(tariff.getIncrementCents());
+        tariffDTO.setBands(new ArrayList<>(tariff.getBands().stream()
+                .map(band -> new TariffDTO.Band(band.getFrom(), band.getTo(), band.getCents()))
+                .toList()));
+        tariffDTO.setDailyCapCents(tariff.getDailyCapCents());
+        tariffDTO.setLoyaltyEvery(tariff.getLoyaltyEvery());
+        tariffDTO.setLoyaltyDiscountPercent(tariff.getLoyaltyDiscountPercent());
+        return tariffDTO;
+    }
+
+    public static TariffSimulationResponseVO toTariffSimulationResponseVO(TariffSimulationService.TariffSimulation simulation) {
+        TariffSimulationResponseVO responseVO = new TariffSimulationResponseVO();
+        long sessions = 0;
+        long currentCents = 0;
+        long candidateCents = 0;
+
+        for (int hour = 0; hour < TariffSimulationService.TariffSimulation.HOURS; hour++) {
+            long current = simulation.getCurrentCents()[hour];
+            long candidate = simulation.getCandidateCents()[hour];
+            sessions += simulation.getSessions()[hour];
+            currentCents += current;
+            candidateCents += candidate;
+
+            responseVO.getHours().add(new TariffSimulationResponseVO.Hour(
+                    hour,
+                    simulation.getSessions()[hour],
+                    TariffEngine.toAmount(current),
+                    TariffEngine.toAmount(candidate),
+                    TariffEngine.toAmount(candidate - current)
+            ));
+        }
+
+        responseVO.setSessions(sessions);
+        responseVO.setCurrentRevenue(TariffEngine.toAmount(currentCents));
+        responseVO.setCandidateRevenue(TariffEngine.toAmount(candidateCents));
+        responseVO.setDelta(TariffEngine.toAmount(candidateCents - currentCents));
+        return responseVO;
+    }
+}
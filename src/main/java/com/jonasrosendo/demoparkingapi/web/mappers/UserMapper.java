@@ -1,7 +1,10 @@
 package com.jonasrosendo.demoparkingapi.web.mappers;
 
 import com.jonasrosendo.demoparkingapi.entities.User;
+import com.jonasrosendo.demoparkingapi.repositories.projection.UserProjection;
+import com.jonasrosendo.demoparkingapi.utils.KeysetCursor;
 import com.jonasrosendo.demoparkingapi.web.dtos.user.UserCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.vos.CursorPageResponseVO;
 import com.jonasrosendo.demoparkingapi.web.vos.user.UserResponseVO;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -22,11 +25,30 @@ public class UserMapper {
         UserResponseVO userResponseVO = new UserResponseVO();
         userResponseVO.setId(user.getId());
         userResponseVO.setUsername(user.getUsername());
-        userResponseVO.setRole(user.getRole().name().substring("ROLE_".length()));
+        userResponseVO.setRole(roleName(user.getRole()));
+        return userResponseVO;
+    }
+
+    public static UserResponseVO toUserResponseVO(UserProjection user) {
+        UserResponseVO userResponseVO = new UserResponseVO();
+        userResponseVO.setId(user.getId());
+        userResponseVO.setUsername(user.getUsername());
+        userResponseVO.setRole(roleName(user.getRole()));
         return userResponseVO;
     }
 
     public static List<UserResponseVO> toUserResponseVOList(List<User> users) {
         return users.stream().map(user -> toUserResponseVO(user)).toList();
     }
+
+    // rows holds up to size + 1 users, the extra one only tells there is a next page
+    public static CursorPageResponseVO toCursorPageResponseVO(List<UserProjection> rows, int size) {
+        List<UserResponseVO> content = rows.stream().limit(size).map(user -> toUserResponseVO(user)).toList();
+        String nextCursor = rows.size() > size ? KeysetCursor.encodeId(rows.get(size - 1).getId()) : null;
+        return new CursorPageResponseVO(content, content.size(), nextCursor);
+    }
+
+    private static String roleName(User.Role role) {
+        return role.name().substring("ROLE_".length());
+    }
 }
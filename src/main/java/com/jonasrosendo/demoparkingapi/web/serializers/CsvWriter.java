@@ -0,0 +1,79 @@
+package com.jonasrosendo.demoparkingapi.web.serializers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// RFC 4180 rows over a buffered writer, the output is flushed when the buffer fills up and on close. Fields with a
+// separator, a quote or a line break are quoted, null is an empty field
+public class CsvWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private boolean firstField = true;
+
+    public CsvWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public CsvWriter field(Object value) {
+        try {
+            if (!firstField) {
+                writer.write(',');
+            }
+
+            firstField = false;
+
+            if (value != null) {
+                write(value.toString());
+            }
+
+            return this;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void endRow() {
+        try {
+            writer.write("\r\n");
+            firstField = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // flush only, the servlet container owns the output stream
+        writer.flush();
+    }
+
+    private void write(String value) throws IOException {
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
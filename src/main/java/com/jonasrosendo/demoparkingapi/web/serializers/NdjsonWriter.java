@@ -0,0 +1,41 @@
+package com.jonasrosendo.demoparkingapi.web.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// one json document per line (application/x-ndjson) written through the generator buffer, the output is flushed
+// when the buffer fills up and on close instead of after every value. The type is the declared one, so projection
+// proxies are written by their interface
+public class NdjsonWriter<T> implements AutoCloseable {
+
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+
+    public NdjsonWriter(ObjectMapper objectMapper, Class<T> type, OutputStream out) throws IOException {
+        this.writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+    }
+
+    // Consumer friendly, the IOException of a closed connection ends the export
+    public void write(T value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,47 @@
+package com.jonasrosendo.demoparkingapi.web.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.io.IOException;
+
+// writes a Page straight to the response with the PageableResponseVO shape, the content is serialized element by
+// element from the page itself instead of being copied into a VO first
+@SuppressWarnings("rawtypes")
+public class PageSerializer extends StdSerializer<Page> {
+
+    public PageSerializer() {
+        super(Page.class);
+    }
+
+    // Page is looked up before Slice, as PageImpl implements Page directly
+    public static SimpleModule module() {
+        return new SimpleModule("PageModule")
+                .addSerializer(Page.class, new PageSerializer())
+                .addSerializer(Slice.class, new SliceSerializer());
+    }
+
+    @Override
+    public void serialize(Page page, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("content");
+
+        for (Object element : page.getContent()) {
+            provider.defaultSerializeValue(element, generator);
+        }
+
+        generator.writeEndArray();
+        generator.writeBooleanField("first", page.isFirst());
+        generator.writeBooleanField("last", page.isLast());
+        generator.writeNumberField("size", page.getSize());
+        generator.writeNumberField("totalPages", page.getTotalPages());
+        generator.writeNumberField("totalElements", page.getTotalElements());
+        generator.writeNumberField("page", page.getNumber());
+        generator.writeNumberField("pageElements", page.getNumberOfElements());
+        generator.writeEndObject();
+    }
+}
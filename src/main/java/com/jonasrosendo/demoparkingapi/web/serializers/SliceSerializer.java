@@ -0,0 +1,36 @@
+package com.jonasrosendo.demoparkingapi.web.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Slice;
+
+import java.io.IOException;
+
+// SliceResponseVO shape: a Page without totalPages and totalElements, hasNext tells whether there is a next page
+@SuppressWarnings("rawtypes")
+public class SliceSerializer extends StdSerializer<Slice> {
+
+    public SliceSerializer() {
+        super(Slice.class);
+    }
+
+    @Override
+    public void serialize(Slice slice, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("content");
+
+        for (Object element : slice.getContent()) {
+            provider.defaultSerializeValue(element, generator);
+        }
+
+        generator.writeEndArray();
+        generator.writeBooleanField("first", slice.isFirst());
+        generator.writeBooleanField("last", slice.isLast());
+        generator.writeNumberField("size", slice.getSize());
+        generator.writeBooleanField("hasNext", slice.hasNext());
+        generator.writeNumberField("page", slice.getNumber());
+        generator.writeNumberField("pageElements", slice.getNumberOfElements());
+        generator.writeEndObject();
+    }
+}
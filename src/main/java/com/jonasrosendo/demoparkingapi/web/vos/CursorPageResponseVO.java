@@ -0,0 +1,23 @@
+package com.jonasrosendo.demoparkingapi.web.vos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class CursorPageResponseVO {
+
+    private List<?> content = new ArrayList<>();
+
+    private int size;
+
+    // send it back as the cursor parameter to get the next page, null on the last page
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+}
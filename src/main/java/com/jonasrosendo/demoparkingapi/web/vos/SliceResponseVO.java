@@ -0,0 +1,24 @@
+package com.jonasrosendo.demoparkingapi.web.vos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+public class SliceResponseVO {
+
+    private List<Object> content = new ArrayList<>();
+    private boolean first;
+    private boolean last;
+
+    @JsonProperty("page")
+    private int number;
+
+    private int size;
+    @JsonProperty("pageElements")
+    private int numberOfElements;
+    private boolean hasNext;
+}
@@ -0,0 +1,54 @@
+package com.jonasrosendo.demoparkingapi.web.vos.parking_lot;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutBatchResponseVO {
+
+    @JsonProperty(value = "checked_out")
+    private int checkedOut;
+
+    private int failed;
+
+    private List<Item> results = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(value = JsonInclude.Include.NON_NULL)
+    public static class Item {
+
+        private String receipt;
+
+        @JsonProperty(value = "customer_cpf")
+        private String customerCpf;
+
+        @JsonProperty("checkout")
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime checkout;
+
+        @JsonProperty("parking_slot_code")
+        private String parkingSlotCode;
+
+        private BigDecimal price;
+
+        private BigDecimal discount;
+
+        private String error;
+    }
+}
@@ -0,0 +1,55 @@
+package com.jonasrosendo.demoparkingapi.web.vos.parking_lot;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerHasSlotBatchResponseVO {
+
+    @JsonProperty(value = "checked_in")
+    private int checkedIn;
+
+    private int failed;
+
+    private List<Item> results = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(value = JsonInclude.Include.NON_NULL)
+    public static class Item {
+
+        @JsonProperty(value = "car_plate")
+        private String carPlate;
+
+        @JsonProperty(value = "customer_cpf")
+        private String customerCpf;
+
+        private String receipt;
+
+        @JsonProperty("check_in")
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime checkIn;
+
+        @JsonProperty("parking_slot_code")
+        private String parkingSlotCode;
+
+        @JsonProperty("receipt_token")
+        private String receiptToken;
+
+        private String error;
+    }
+}
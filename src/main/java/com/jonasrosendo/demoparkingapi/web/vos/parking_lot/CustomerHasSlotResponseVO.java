@@ -49,4 +49,7 @@ public class CustomerHasSlotResponseVO {
     private BigDecimal price;
 
     private BigDecimal discount;
+
+    @JsonProperty("receipt_token")
+    private String receiptToken;
 }
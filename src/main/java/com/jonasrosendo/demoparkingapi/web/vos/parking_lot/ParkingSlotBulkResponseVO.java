@@ -0,0 +1,30 @@
+package com.jonasrosendo.demoparkingapi.web.vos.parking_lot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingSlotBulkResponseVO {
+
+    private int created;
+    private int conflicts;
+    private List<Item> results = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String code;
+        private String result;
+        private String message;
+    }
+}
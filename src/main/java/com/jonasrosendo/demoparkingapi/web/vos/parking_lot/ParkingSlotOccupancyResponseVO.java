@@ -0,0 +1,16 @@
+package com.jonasrosendo.demoparkingapi.web.vos.parking_lot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingSlotOccupancyResponseVO {
+    private long total;
+    private long available;
+    private long occupied;
+}
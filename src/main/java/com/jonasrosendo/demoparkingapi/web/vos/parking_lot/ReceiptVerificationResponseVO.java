@@ -0,0 +1,30 @@
+package com.jonasrosendo.demoparkingapi.web.vos.parking_lot;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.TariffDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// what an exit gate needs to verify receipt tokens and estimate prices offline
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptVerificationResponseVO {
+
+    private String algorithm;
+
+    private String audience;
+
+    // base64 DER X.509 SubjectPublicKeyInfo
+    @JsonProperty("public_key")
+    private String publicKey;
+
+    // matches the tariff claim of receipts issued under this tariff
+    @JsonProperty("tariff_version")
+    private String tariffVersion;
+
+    private TariffDTO tariff;
+}
@@ -0,0 +1,50 @@
+package com.jonasrosendo.demoparkingapi.web.vos.parking_lot;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TariffSimulationResponseVO {
+
+    private long sessions;
+
+    @JsonProperty("current_revenue")
+    private BigDecimal currentRevenue;
+
+    @JsonProperty("candidate_revenue")
+    private BigDecimal candidateRevenue;
+
+    private BigDecimal delta;
+
+    // by hour of the check-in
+    private List<Hour> hours = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hour {
+
+        private int hour;
+
+        private long sessions;
+
+        @JsonProperty("current_revenue")
+        private BigDecimal currentRevenue;
+
+        @JsonProperty("candidate_revenue")
+        private BigDecimal candidateRevenue;
+
+        private BigDecimal delta;
+    }
+}
@@ -4,6 +4,7 @@ package com.jonasrosendo.demoparkingapi;
 import com.jonasrosendo.demoparkingapi.exceptions.ErrorMessage;
 import com.jonasrosendo.demoparkingapi.web.dtos.customer.CustomerCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.vos.PageableResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.SliceResponseVO;
 import com.jonasrosendo.demoparkingapi.web.vos.customer.CustomerResponseVO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -196,6 +197,34 @@ public class CustomerTest {
         assertThat(responseBody.getTotalPages()).isEqualTo(2);
     }
 
+    @Test
+    public void findAllCustomer_WithSliceByAdmin_ReturnCustomerSlice200HttpStatus() {
+        SliceResponseVO responseBody = webTestClient
+                .get()
+                .uri("/api/v1/customers?slice=true&size=1&page=0")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(SliceResponseVO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(responseBody).isNotNull();
+        assertThat(responseBody.getContent().size()).isEqualTo(1);
+        assertThat(responseBody.isHasNext()).isTrue();
+
+        webTestClient
+                .get()
+                .uri("/api/v1/customers?slice=true&size=1&page=1")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("hasNext").isEqualTo(false)
+                .jsonPath("last").isEqualTo(true)
+                .jsonPath("totalElements").doesNotExist();
+    }
+
     @Test
     public void findAllCustomer_WithPaginationByCustomer_ReturnError403HttpStatus() {
         ErrorMessage responseBody = webTestClient
@@ -1,14 +1,46 @@
 package com.jonasrosendo.demoparkingapi;
 
+import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
+import com.jonasrosendo.demoparkingapi.jwt.JwtUtils;
+import com.jonasrosendo.demoparkingapi.jwt.ReceiptTokens;
+import com.jonasrosendo.demoparkingapi.services.OpenSessionIndex;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.CheckoutBatchDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.CustomerHasSlotBatchCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.CustomerHasSlotCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.TariffDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.TariffSimulationDTO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CustomerHasSlotBatchResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.CustomerHasSlotResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ReceiptVerificationResponseVO;
+import com.jonasrosendo.demoparkingapi.web.vos.CursorPageResponseVO;
 import com.jonasrosendo.demoparkingapi.web.vos.PageableResponseVO;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -20,6 +52,15 @@ public class ParkingLotTest {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private ReceiptTokens receiptTokens;
+
+    @Autowired
+    private OpenSessionIndex openSessionIndex;
+
+    @Autowired
+    private Clock clock;
+
     @Test
     public void createCheckIn_WithValidData_ReturnLocation201HttpStatus() {
         CustomerHasSlotCreateDTO customerHasSlotCreateDTO = CustomerHasSlotCreateDTO
@@ -52,6 +93,268 @@ public class ParkingLotTest {
                 .jsonPath("parking_slot_code").exists();
     }
 
+    @Test
+    public void createCheckIn_TwiceInARow_ReturnDifferentSlotsAndReceipts() {
+        CustomerHasSlotCreateDTO customerHasSlotCreateDTO = CustomerHasSlotCreateDTO
+                .builder()
+                .carPlate("XXX-0000")
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER")
+                .customerCpf("89097862051")
+                .build();
+
+        CustomerHasSlotResponseVO first = checkIn(customerHasSlotCreateDTO);
+        CustomerHasSlotResponseVO second = checkIn(customerHasSlotCreateDTO);
+
+        assertThat(first.getParkingSlotCode()).isNotEqualTo(second.getParkingSlotCode());
+        assertThat(first.getReceipt()).isNotEqualTo(second.getReceipt());
+    }
+
+    @Test
+    public void createCheckIn_WithValidData_IndexSessionWithItsId() {
+        CustomerHasSlotCreateDTO.CustomerHasSlotCreateDTOBuilder builder = CustomerHasSlotCreateDTO
+                .builder()
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER")
+                .customerCpf("89097862051");
+
+        String receipt = checkIn(builder.carPlate("AAA-0001").build()).getReceipt();
+
+        CustomerHasSlotBatchResponseVO batch = webTestClient
+                .post()
+                .uri("/api/v1/parking-lots/check-in/batch")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CustomerHasSlotBatchCreateDTO(List.of(builder.carPlate("AAA-0002").build())))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CustomerHasSlotBatchResponseVO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(batch).isNotNull();
+
+        for (String indexed : List.of(receipt, batch.getResults().get(0).getReceipt())) {
+            assertThat(openSessionIndex.find(indexed)).get()
+                    .extracting(CustomerHasSlot::getId).isNotNull();
+        }
+    }
+
+    @Test
+    public void createCheckIn_WithValidData_ReturnVerifiableReceiptToken() throws GeneralSecurityException {
+        CustomerHasSlotCreateDTO customerHasSlotCreateDTO = CustomerHasSlotCreateDTO
+                .builder()
+                .carPlate("XXX-0000")
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER")
+                .customerCpf("89097862051")
+                .build();
+
+        CustomerHasSlotResponseVO responseBody = checkIn(customerHasSlotCreateDTO);
+
+        // a gate only gets the public key and the tariff, without authenticating
+        ReceiptVerificationResponseVO verification = webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/receipts/verification")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ReceiptVerificationResponseVO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(verification).isNotNull();
+        assertThat(verification.getAlgorithm()).isEqualTo("ES256");
+        assertThat(verification.getTariff().getBlocks()).hasSize(2);
+
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(toPublicKey(verification.getPublicKey()))
+                .requireAudience(verification.getAudience())
+                .build()
+                .parseClaimsJws(responseBody.getReceiptToken())
+                .getBody();
+
+        assertThat(claims.getSubject()).isEqualTo(responseBody.getReceipt());
+        assertThat(claims.get(ReceiptTokens.CLAIM_SLOT, String.class)).isEqualTo(responseBody.getParkingSlotCode());
+        assertThat(claims.get(ReceiptTokens.CLAIM_PLATE, String.class)).isEqualTo("XXX-0000");
+        assertThat(claims.get(ReceiptTokens.CLAIM_CHECK_IN, Long.class))
+                .isEqualTo(responseBody.getCheckIn().atZone(clock.getZone()).toEpochSecond());
+        assertThat(claims.get(ReceiptTokens.CLAIM_TARIFF, String.class)).isEqualTo(verification.getTariffVersion());
+        assertThat(claims.getExpiration()).isAfter(new Date());
+        assertThat(receiptTokens.verify(responseBody.getReceiptToken() + "x")).isNull();
+    }
+
+    @Test
+    public void findCheckIn_WithReceiptTokenAsBearer_ReturnError401HttpStatus() {
+        CustomerHasSlotCreateDTO customerHasSlotCreateDTO = CustomerHasSlotCreateDTO
+                .builder()
+                .carPlate("XXX-0000")
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER")
+                .customerCpf("89097862051")
+                .build();
+
+        CustomerHasSlotResponseVO responseBody = checkIn(customerHasSlotCreateDTO);
+
+        webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/check-in/{receipt}", responseBody.getReceipt())
+                .header(HttpHeaders.AUTHORIZATION, JwtUtils.JWT_BEARER + responseBody.getReceiptToken())
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void verifyReceiptToken_WithAccessToken_ReturnNull() {
+        String accessToken = JwtUtils.createToken(100L, "jonas@email.com", "ADMIN").getToken();
+        // signed with the login key but claiming the gate audience, what a holder of that key could forge
+        String forgedReceipt = Jwts.builder()
+                .setSubject("20230313-101300")
+                .setAudience(ReceiptTokens.AUDIENCE)
+                .signWith(Keys.hmacShaKeyFor(JwtUtils.SECRET_KEY.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(receiptTokens.verify(accessToken)).isNull();
+        assertThat(receiptTokens.verify(forgedReceipt)).isNull();
+    }
+
+    @Test
+    public void createCheckInBatch_WithMixedItems_ReturnResultPerItem200HttpStatus() {
+        CustomerHasSlotCreateDTO.CustomerHasSlotCreateDTOBuilder builder = CustomerHasSlotCreateDTO
+                .builder()
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER");
+
+        CustomerHasSlotBatchCreateDTO batchCreateDTO = new CustomerHasSlotBatchCreateDTO(List.of(
+                builder.carPlate("AAA-0001").customerCpf("89097862051").build(),
+                builder.carPlate("AAA-0002").customerCpf("12345678909").build(),
+                builder.carPlate("AAA-0003").customerCpf("94140627000").build(),
+                builder.carPlate("AAA-0004").customerCpf("89097862051").build()
+        ));
+
+        webTestClient
+                .post()
+                .uri("/api/v1/parking-lots/check-in/batch")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(batchCreateDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("checked_in").isEqualTo(2)
+                .jsonPath("failed").isEqualTo(2)
+                .jsonPath("results[0].receipt").exists()
+                .jsonPath("results[0].parking_slot_code").exists()
+                .jsonPath("results[0].receipt_token").exists()
+                .jsonPath("results[1].error").isEqualTo("Customer cpf=12345678909 not found")
+                .jsonPath("results[2].receipt").exists()
+                .jsonPath("results[3].error").isEqualTo("No Available slots");
+    }
+
+    @Test
+    public void createCheckInBatch_InOneSecond_ReturnOrderedReceiptsWithoutFutureTimestamps() {
+        CustomerHasSlotCreateDTO.CustomerHasSlotCreateDTOBuilder builder = CustomerHasSlotCreateDTO
+                .builder()
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER")
+                .customerCpf("89097862051");
+
+        CustomerHasSlotBatchCreateDTO batchCreateDTO = new CustomerHasSlotBatchCreateDTO(List.of(
+                builder.carPlate("AAA-0001").build(),
+                builder.carPlate("AAA-0002").build()
+        ));
+
+        CustomerHasSlotBatchResponseVO response = webTestClient
+                .post()
+                .uri("/api/v1/parking-lots/check-in/batch")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(batchCreateDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CustomerHasSlotBatchResponseVO.class)
+                .returnResult().getResponseBody();
+        long receivedAt = System.currentTimeMillis();
+
+        assertThat(response).isNotNull();
+        List<String> receipts = response.getResults().stream().map(CustomerHasSlotBatchResponseVO.Item::getReceipt).toList();
+
+        // millisecond receipts: a batch never takes seconds ahead of the clock to stay unique
+        assertThat(receipts).hasSize(2).doesNotHaveDuplicates().isSorted();
+        assertThat(receipts).allSatisfy(receipt -> assertThat(receiptMillis(receipt)).isLessThanOrEqualTo(receivedAt));
+    }
+
+    @Test
+    public void createCheckInBatch_WithCustomerRole_ReturnError403HttpStatus() {
+        CustomerHasSlotBatchCreateDTO batchCreateDTO = new CustomerHasSlotBatchCreateDTO(List.of(
+                CustomerHasSlotCreateDTO
+                        .builder()
+                        .carPlate("XXX-0000")
+                        .carBrand("FIAT")
+                        .carModel("PALIO")
+                        .carColor("SILVER")
+                        .customerCpf("89097862051")
+                        .build()
+        ));
+
+        webTestClient
+                .post()
+                .uri("/api/v1/parking-lots/check-in/batch")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "bob@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(batchCreateDTO)
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("status").isEqualTo(403)
+                .jsonPath("method").isEqualTo("POST")
+                .jsonPath("path").isEqualTo("/api/v1/parking-lots/check-in/batch");
+    }
+
+    @Test
+    public void streamSlots_WithCheckIn_ReturnOccupancyAndSlotEvents() {
+        Flux<ServerSentEvent<String>> events = webTestClient
+                .get()
+                .uri("/api/v1/parking-slots/stream")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "ana@email.com", "123456"))
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody();
+
+        CustomerHasSlotCreateDTO customerHasSlotCreateDTO = CustomerHasSlotCreateDTO
+                .builder()
+                .carPlate("XXX-0000")
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER")
+                .customerCpf("89097862051")
+                .build();
+
+        webTestClient
+                .post()
+                .uri("/api/v1/parking-lots/check-in")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(customerHasSlotCreateDTO)
+                .exchange()
+                .expectStatus().isCreated();
+
+        List<ServerSentEvent<String>> received = events
+                .filter(event -> event.event() != null)
+                .takeUntil(event -> "slot".equals(event.event()))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(received).isNotNull().hasSizeGreaterThanOrEqualTo(2);
+        assertThat(received.get(0).event()).isEqualTo("occupancy");
+        assertThat(received.get(received.size() - 1).data()).contains("UNAVAILABLE");
+    }
+
     @Test
     public void createCheckIn_WithCustomerRole_ReturnError403HttpStatus() {
         CustomerHasSlotCreateDTO customerHasSlotCreateDTO = CustomerHasSlotCreateDTO
@@ -246,6 +549,48 @@ public class ParkingLotTest {
                 .jsonPath("status").isEqualTo(404);
     }
 
+    @Test
+    public void findCheckIn_AfterCheckInAndCheckout_ReturnData200ThenError404HttpStatus() {
+        CustomerHasSlotCreateDTO customerHasSlotCreateDTO = CustomerHasSlotCreateDTO
+                .builder()
+                .carPlate("XXX-0000")
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER")
+                .customerCpf("89097862051")
+                .build();
+
+        CustomerHasSlotResponseVO checkIn = checkIn(customerHasSlotCreateDTO);
+
+        webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/check-in/{receipt}", checkIn.getReceipt())
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("receipt").isEqualTo(checkIn.getReceipt())
+                .jsonPath("car_plate").isEqualTo("XXX-0000")
+                .jsonPath("customer_cpf").isEqualTo("89097862051")
+                .jsonPath("parking_slot_code").isEqualTo(checkIn.getParkingSlotCode());
+
+        webTestClient
+                .put()
+                .uri("/api/v1/parking-lots/checkout/{receipt}", checkIn.getReceipt())
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/check-in/{receipt}", checkIn.getReceipt())
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("status").isEqualTo(404);
+    }
+
     @Test
     public void doCheckout_WithReceiptExistent_ReturnSuccess200HttpStatus() {
 
@@ -269,6 +614,170 @@ public class ParkingLotTest {
                 .jsonPath("checkout").exists();
     }
 
+    @Test
+    public void doCheckoutBatch_WithMixedReceipts_ReturnResultPerItem200HttpStatus() {
+        CustomerHasSlotCreateDTO customerHasSlotCreateDTO = CustomerHasSlotCreateDTO
+                .builder()
+                .carPlate("XXX-0000")
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER")
+                .customerCpf("89097862051")
+                .build();
+
+        String first = checkIn(customerHasSlotCreateDTO).getReceipt();
+        String second = checkIn(customerHasSlotCreateDTO).getReceipt();
+
+        webTestClient
+                .put()
+                .uri("/api/v1/parking-lots/checkout/batch")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CheckoutBatchDTO(List.of(first, "20230313-101300", second)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("checked_out").isEqualTo(2)
+                .jsonPath("failed").isEqualTo(1)
+                .jsonPath("results[0].receipt").isEqualTo(first)
+                .jsonPath("results[0].price").isEqualTo(5.0)
+                .jsonPath("results[0].checkout").exists()
+                .jsonPath("results[0].parking_slot_code").exists()
+                .jsonPath("results[1].error").isEqualTo("Receipt '20230313-101300' not found or checkout already performed")
+                .jsonPath("results[2].receipt").isEqualTo(second)
+                .jsonPath("results[2].price").isEqualTo(5.0);
+    }
+
+    @Test
+    public void doCheckoutBatch_WithRepeatedReceipts_ReturnError422HttpStatus() {
+        webTestClient
+                .put()
+                .uri("/api/v1/parking-lots/checkout/batch")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CheckoutBatchDTO(List.of("20230313-101300", "20230313-101300")))
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("status").isEqualTo(422)
+                .jsonPath("method").isEqualTo("PUT")
+                .jsonPath("path").isEqualTo("/api/v1/parking-lots/checkout/batch");
+    }
+
+    @Test
+    public void simulateTariff_WithClosedParkings_ReturnRevenueDelta200HttpStatus() {
+        CustomerHasSlotCreateDTO customerHasSlotCreateDTO = CustomerHasSlotCreateDTO
+                .builder()
+                .carPlate("XXX-0000")
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER")
+                .customerCpf("89097862051")
+                .build();
+
+        String first = checkIn(customerHasSlotCreateDTO).getReceipt();
+        String second = checkIn(customerHasSlotCreateDTO).getReceipt();
+
+        webTestClient
+                .put()
+                .uri("/api/v1/parking-lots/checkout/batch")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CheckoutBatchDTO(List.of(first, second)))
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient
+                .post()
+                .uri("/api/v1/parking-lots/tariff-simulations")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(tariffSimulation(700))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("sessions").isEqualTo(2)
+                .jsonPath("current_revenue").isEqualTo(10.0)
+                .jsonPath("candidate_revenue").isEqualTo(14.0)
+                .jsonPath("delta").isEqualTo(4.0)
+                .jsonPath("hours.length()").isEqualTo(24);
+    }
+
+    @Test
+    @Sql(scripts = {"/sql/parking-lots/parking-lots-insert.sql", "/sql/parking-lots/parking-lots-history-insert.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "/sql/parking-lots/parking-lots-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void simulateTariff_WithParkingsClosedBeforeRange_CountThemForLoyaltyDiscount200HttpStatus() {
+        CustomerHasSlotCreateDTO customerHasSlotCreateDTO = CustomerHasSlotCreateDTO
+                .builder()
+                .carPlate("XXX-0000")
+                .carBrand("FIAT")
+                .carModel("PALIO")
+                .carColor("SILVER")
+                .customerCpf("89097862051")
+                .build();
+
+        String first = checkIn(customerHasSlotCreateDTO).getReceipt();
+        String second = checkIn(customerHasSlotCreateDTO).getReceipt();
+
+        webTestClient
+                .put()
+                .uri("/api/v1/parking-lots/checkout/batch")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CheckoutBatchDTO(List.of(first, second)))
+                .exchange()
+                .expectStatus().isOk();
+
+        // the parking closed in 2023 is out of the range but makes the second one in it the customer's 2nd
+        TariffSimulationDTO tariffSimulation = tariffSimulation(700);
+        tariffSimulation.getTariff().setLoyaltyEvery(2);
+
+        webTestClient
+                .post()
+                .uri("/api/v1/parking-lots/tariff-simulations")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(tariffSimulation)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("sessions").isEqualTo(2)
+                .jsonPath("candidate_revenue").isEqualTo(11.9);
+    }
+
+    @Test
+    public void simulateTariff_WithRoleCustomer_ReturnError403HttpStatus() {
+        webTestClient
+                .post()
+                .uri("/api/v1/parking-lots/tariff-simulations")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "bob@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(tariffSimulation(700))
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("status").isEqualTo(403)
+                .jsonPath("method").isEqualTo("POST")
+                .jsonPath("path").isEqualTo("/api/v1/parking-lots/tariff-simulations");
+    }
+
+    @Test
+    public void doCheckoutBatch_WithRoleCustomer_ReturnError403HttpStatus() {
+        webTestClient
+                .put()
+                .uri("/api/v1/parking-lots/checkout/batch")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "bob@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CheckoutBatchDTO(List.of("20231122-130122")))
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("status").isEqualTo(403)
+                .jsonPath("method").isEqualTo("PUT")
+                .jsonPath("path").isEqualTo("/api/v1/parking-lots/checkout/batch");
+    }
+
     @Test
     public void doCheckout_WithReceiptNonExistent_ReturnError404HttpStatus() {
 
@@ -329,6 +838,144 @@ public class ParkingLotTest {
         assertThat(responseBody.getSize()).isEqualTo(1);
     }
 
+    @Test
+    public void exportAllParking_WithDateRange_ReturnCsv200HttpStatus() {
+        String responseBody = webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/export?from={from}&to={to}", "2023-11-22 13:03:00", "2023-11-23 00:00:00")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv")
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertThat(responseBody).isNotNull();
+        String[] lines = responseBody.split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("receipt,customer_cpf,car_plate,car_brand,car_model,car_color," +
+                "parking_slot_code,check_in,checkout,price,discount");
+        assertThat(lines[1]).isEqualTo("20231122-130322,89097862051,SIE-2020,FIAT,SIENA,AZUL,A-02," +
+                "2023-11-22 13:05:29,,,");
+        assertThat(lines[2]).startsWith("20231122-130522,94140627000,");
+    }
+
+    @Test
+    public void exportAllParking_WithFromAfterTo_ReturnError422HttpStatus() {
+        webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/export?from={from}&to={to}", "2023-11-23 00:00:00", "2023-11-22 00:00:00")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("status").isEqualTo(422)
+                .jsonPath("path").isEqualTo("/api/v1/parking-lots/export");
+    }
+
+    @Test
+    public void exportAllParkingByCpf_WithValidCpf_ReturnNdjson200HttpStatus() {
+        String responseBody = webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/cpf/{cpf}/export", "94140627000")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"parking-94140627000.ndjson\"")
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertThat(responseBody).isNotNull();
+        String[] lines = responseBody.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"receipt\":\"20231122-130122\"", "\"customer_cpf\":\"94140627000\"");
+        assertThat(lines[1]).contains("\"receipt\":\"20231122-130522\"");
+    }
+
+    @Test
+    public void exportAllParkingByCpf_WithQuoteInCpf_ReturnEscapedFileName200HttpStatus() {
+        webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/cpf/{cpf}/export", "941\" x=\"y")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"parking-941\\\" x=\\\"y.ndjson\"")
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    public void exportAllParkingByCpf_WithRoleCustomer_ReturnError403HttpStatus() {
+        webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/cpf/{cpf}/export", "94140627000")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("status").isEqualTo(403)
+                .jsonPath("path").isEqualTo("/api/v1/parking-lots/cpf/94140627000/export");
+    }
+
+    @Test
+    public void findAllParkingByCpf_WithSlice_ReturnSliceWithoutTotals200HttpStatus() {
+        webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/cpf/{cpf}?slice=true&size=1&page=0", "94140627000")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("content[0].receipt").isEqualTo("20231122-130122")
+                .jsonPath("hasNext").isEqualTo(true)
+                .jsonPath("page").isEqualTo(0)
+                .jsonPath("totalPages").doesNotExist()
+                .jsonPath("totalElements").doesNotExist();
+    }
+
+    @Test
+    public void findAllParkingByCpf_WithCursor_ReturnKeysetPages200HttpStatus() {
+        CursorPageResponseVO responseBody = webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/cpf/{cpf}?size=1&cursor=", "94140627000")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CursorPageResponseVO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(responseBody).isNotNull();
+        assertThat(responseBody.getContent().size()).isEqualTo(1);
+        assertThat(responseBody.getNextCursor()).isNotNull();
+
+        webTestClient
+                .get()
+                .uri("/api/v1/parking-lots/cpf/{cpf}?size=1&cursor={cursor}", "94140627000", responseBody.getNextCursor())
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("content[0].receipt").isEqualTo("20231122-130522")
+                .jsonPath("content[0].id").doesNotExist()
+                .jsonPath("next_cursor").doesNotExist();
+    }
+
+    @Test
+    public void findAllParkingById_WithInvalidCursor_ReturnError400HttpStatus() {
+        webTestClient
+                .get()
+                .uri("/api/v1/parking-lots?cursor=not-a-cursor")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("status").isEqualTo(400)
+                .jsonPath("path").isEqualTo("/api/v1/parking-lots");
+    }
+
     @Test
     public void findAllParkingByCpf_WithRoleCustomer_ReturnError403HttpStatus() {
         webTestClient
@@ -386,4 +1033,40 @@ public class ParkingLotTest {
                 .expectBody()
                 .jsonPath("status").isEqualTo(403);
     }
+
+    private TariffSimulationDTO tariffSimulation(int firstBlockCents) {
+        TariffDTO tariff = new TariffDTO();
+        tariff.setBlocks(List.of(new TariffDTO.Block(15, firstBlockCents), new TariffDTO.Block(60, 925)));
+        tariff.setIncrementMinutes(15);
+        tariff.setIncrementCents(175);
+        tariff.setLoyaltyDiscountPercent(30);
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        return new TariffSimulationDTO(now.minusHours(1), now.plusHours(1), tariff);
+    }
+
+    // epoch millis of a receipt: 41 bits of milliseconds since 2024-01-01 above 10 node and 12 sequence bits
+    private static long receiptMillis(String receipt) {
+        return (Long.parseLong(receipt, 36) >>> 22) + Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    }
+
+    private static PublicKey toPublicKey(String publicKey) throws GeneralSecurityException {
+        return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey)));
+    }
+
+    private CustomerHasSlotResponseVO checkIn(CustomerHasSlotCreateDTO customerHasSlotCreateDTO) {
+        CustomerHasSlotResponseVO response = webTestClient
+                .post()
+                .uri("/api/v1/parking-lots/check-in")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", "123456"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(customerHasSlotCreateDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(CustomerHasSlotResponseVO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response).isNotNull();
+        return response;
+    }
 }
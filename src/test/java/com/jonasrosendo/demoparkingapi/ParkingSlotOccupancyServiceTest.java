@@ -0,0 +1,75 @@
+package com.jonasrosendo.demoparkingapi;
+
+import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import com.jonasrosendo.demoparkingapi.repositories.ParkingSlotRepository;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotEventBus;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotOccupancyService;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// outside a transaction the counter changes apply right away, the same as an after commit hook running mid count
+public class ParkingSlotOccupancyServiceTest {
+
+    private final ParkingSlotRepository slotRepository = mock(ParkingSlotRepository.class);
+    private final ParkingSlotOccupancyService occupancyService =
+            new ParkingSlotOccupancyService(slotRepository, new ParkingSlotEventBus(16));
+
+    @Test
+    public void reconcile_WithDriftedCounters_ReturnCountedValues() {
+        occupancyService.slotsCreated(3, 3);
+        counts(10, 5);
+
+        occupancyService.reconcile();
+
+        assertOccupancy(10, 5);
+    }
+
+    @Test
+    public void reconcile_WithChangeAppliedAfterTheCount_KeepTheChange() {
+        counts(10, 5);
+        occupancyService.reconcile();
+
+        // the check-in commits after the count read the slots, only the counter sees it
+        when(slotRepository.countByStatus(ParkingSlot.SlotStatus.AVAILABLE)).thenAnswer(invocation -> {
+            occupancyService.slotOccupied();
+            return 5L;
+        });
+
+        occupancyService.reconcile();
+
+        assertOccupancy(10, 4);
+    }
+
+    @Test
+    public void reconcile_WithChangeCountedTwice_CorrectItOnTheNextRun() {
+        counts(10, 5);
+        occupancyService.reconcile();
+
+        // the check-in is committed when the count reads the slots and its counter change lands during the count
+        when(slotRepository.countByStatus(ParkingSlot.SlotStatus.AVAILABLE)).thenAnswer(invocation -> {
+            occupancyService.slotOccupied();
+            return 4L;
+        });
+
+        occupancyService.reconcile();
+        assertOccupancy(10, 3);
+
+        counts(10, 4);
+        occupancyService.reconcile();
+        assertOccupancy(10, 4);
+    }
+
+    private void counts(long total, long available) {
+        when(slotRepository.count()).thenReturn(total);
+        when(slotRepository.countByStatus(ParkingSlot.SlotStatus.AVAILABLE)).thenReturn(available);
+    }
+
+    private void assertOccupancy(long total, long available) {
+        ParkingSlotOccupancyService.Occupancy occupancy = occupancyService.getOccupancy();
+        assertThat(occupancy.getTotal()).isEqualTo(total);
+        assertThat(occupancy.getAvailable()).isEqualTo(available);
+    }
+}
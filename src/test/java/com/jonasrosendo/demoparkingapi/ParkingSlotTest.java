@@ -1,7 +1,13 @@
 package com.jonasrosendo.demoparkingapi;
 
 import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import com.jonasrosendo.demoparkingapi.repositories.ParkingSlotRepository;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotAllocator;
+import com.jonasrosendo.demoparkingapi.services.ParkingSlotOccupancyService;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotBulkCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotCreateDTO;
+import com.jonasrosendo.demoparkingapi.web.dtos.parking_lot.ParkingSlotRangeDTO;
+import com.jonasrosendo.demoparkingapi.web.vos.parking_lot.ParkingSlotOccupancyResponseVO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -9,6 +15,20 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Sql(scripts = "/sql/parking-slots/parking-slots-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -18,6 +38,20 @@ public class ParkingSlotTest {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private ParkingSlotOccupancyService occupancyService;
+
+    @Autowired
+    private ParkingSlotAllocator slotAllocator;
+
+    @Autowired
+    private ParkingSlotRepository slotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Clock clock;
 
     @Test
     public void createSlots_WithValidData_ReturnLocation201HttpStatus() {
@@ -94,6 +128,103 @@ public class ParkingSlotTest {
                 .jsonPath("path").isEqualTo("/api/v1/parking-slots");
     }
 
+    @Test
+    public void createSlotsInBulk_WithListAndRange_ReturnResults200HttpStatus() {
+        ParkingSlotBulkCreateDTO bulkCreateDTO = new ParkingSlotBulkCreateDTO(
+                List.of(
+                        new ParkingSlotCreateDTO("A-01", ParkingSlot.SlotStatus.AVAILABLE.name()),
+                        new ParkingSlotCreateDTO("A-05", ParkingSlot.SlotStatus.AVAILABLE.name()),
+                        new ParkingSlotCreateDTO("A-05", ParkingSlot.SlotStatus.UNAVAILABLE.name())
+                ),
+                new ParkingSlotRangeDTO("B-", 1, 3, ParkingSlot.SlotStatus.AVAILABLE.name())
+        );
+
+        webTestClient
+                .post()
+                .uri("/api/v1/parking-slots/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com","123456"))
+                .bodyValue(bulkCreateDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("created").isEqualTo(4)
+                .jsonPath("conflicts").isEqualTo(2)
+                .jsonPath("results.length()").isEqualTo(6)
+                .jsonPath("results[0].code").isEqualTo("A-01")
+                .jsonPath("results[0].result").isEqualTo("CONFLICT")
+                .jsonPath("results[1].code").isEqualTo("A-05")
+                .jsonPath("results[1].result").isEqualTo("CREATED")
+                .jsonPath("results[2].code").isEqualTo("A-05")
+                .jsonPath("results[2].result").isEqualTo("CONFLICT")
+                .jsonPath("results[3].code").isEqualTo("B-01")
+                .jsonPath("results[3].result").isEqualTo("CREATED");
+
+        webTestClient
+                .get()
+                .uri("/api/v1/parking-slots/B-03")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com","123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("code").isEqualTo("B-03")
+                .jsonPath("status").isEqualTo("AVAILABLE");
+    }
+
+    @Test
+    public void createSlotsInBulk_WithInvalidData_ReturnError422HttpStatus() {
+        webTestClient
+                .post()
+                .uri("/api/v1/parking-slots/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com","123456"))
+                .bodyValue(new ParkingSlotBulkCreateDTO(List.of(), new ParkingSlotRangeDTO("B-", 1, 100, "AVAILABLE")))
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("status").isEqualTo(422)
+                .jsonPath("method").isEqualTo("POST")
+                .jsonPath("path").isEqualTo("/api/v1/parking-slots/bulk");
+    }
+
+    @Test
+    public void createSlotsInBulk_WithCustomerTryingToCreateLots_ReturnError403HttpStatus() {
+        webTestClient
+                .post()
+                .uri("/api/v1/parking-slots/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "ana@email.com","123456"))
+                .bodyValue(new ParkingSlotBulkCreateDTO(List.of(), new ParkingSlotRangeDTO("B-", 1, 3, "AVAILABLE")))
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("status").isEqualTo(403)
+                .jsonPath("method").isEqualTo("POST")
+                .jsonPath("path").isEqualTo("/api/v1/parking-slots/bulk");
+    }
+
+    @Test
+    public void getOccupancy_AfterCreatingSlot_ReturnUpdatedCounters200HttpStatus() {
+        // the @Sql scripts bypass the counters, recount them so a scheduled reconcile can not move them mid test
+        occupancyService.reconcile();
+        ParkingSlotOccupancyResponseVO before = getOccupancy();
+
+        webTestClient
+                .post()
+                .uri("/api/v1/parking-slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com","123456"))
+                .bodyValue(new ParkingSlotCreateDTO("A-05", ParkingSlot.SlotStatus.AVAILABLE.name()))
+                .exchange()
+                .expectStatus().isCreated();
+
+        ParkingSlotOccupancyResponseVO after = getOccupancy();
+
+        assertThat(after.getTotal()).isEqualTo(before.getTotal() + 1);
+        assertThat(after.getAvailable()).isEqualTo(before.getAvailable() + 1);
+        assertThat(after.getOccupied()).isEqualTo(before.getOccupied());
+    }
+
     @Test
     public void findSlots_WithExistentCode_ReturnParkingLot200HttpStatus() {
         webTestClient
@@ -135,4 +266,110 @@ public class ParkingSlotTest {
                 .jsonPath("method").isEqualTo("GET")
                 .jsonPath("path").isEqualTo("/api/v1/parking-slots/A-01");
     }
+
+    @Test
+    public void claimSlot_WithAllSlotsLeasedByAnotherNode_TakesOverOneLease() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ParkingSlotAllocator otherNode = new ParkingSlotAllocator(slotRepository, transactionManager, clock, 1, 50, 10, 300);
+
+        // node 1 leases every AVAILABLE slot (A-01, A-02 and A-04) into its pool
+        otherNode.refill();
+        assertThat(slotRepository.findAll())
+                .filteredOn(slot -> slot.getStatus() == ParkingSlot.SlotStatus.AVAILABLE)
+                .extracting(ParkingSlot::getLeaseOwner)
+                .containsOnly("1");
+
+        List<ParkingSlot> claimed = transactionTemplate.execute(status -> slotAllocator.claim(1));
+        assertThat(claimed).extracting(ParkingSlot::getCode).containsExactly("A-01");
+
+        // node 1 still has A-01 pooled, its claim drops the stale entry and takes the next slot
+        List<ParkingSlot> claimedByOtherNode = transactionTemplate.execute(status -> otherNode.claim(1));
+        assertThat(claimedByOtherNode).extracting(ParkingSlot::getCode).containsExactly("A-02");
+
+        assertThat(slotRepository.findByCode("A-01")).get()
+                .extracting(ParkingSlot::getStatus).isEqualTo(ParkingSlot.SlotStatus.UNAVAILABLE);
+        assertThat(slotRepository.findByCode("A-02")).get()
+                .extracting(ParkingSlot::getStatus).isEqualTo(ParkingSlot.SlotStatus.UNAVAILABLE);
+    }
+
+    @Test
+    public void claimSlot_WithExpiredLeaseOutsideThePool_ClaimsSlotWithoutRenewingIt() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ParkingSlotAllocator otherNode = new ParkingSlotAllocator(slotRepository, transactionManager, clock, 1, 50, 0, 300);
+        LocalDateTime expired = LocalDateTime.now(clock).minusMinutes(1);
+
+        // leases left behind by node 1, e.g. slots that were claimed and released elsewhere, are not in its pool
+        transactionTemplate.executeWithoutResult(status -> slotRepository.lease(List.of(10L, 20L, 40L), "1", expired));
+
+        otherNode.refill();
+        assertThat(slotRepository.findByCode("A-01")).get()
+                .extracting(ParkingSlot::getLeaseExpiry).matches(leaseExpiry -> leaseExpiry.isBefore(LocalDateTime.now(clock)));
+
+        List<ParkingSlot> claimed = transactionTemplate.execute(status -> slotAllocator.claim(3));
+        assertThat(claimed).extracting(ParkingSlot::getCode).containsExactlyInAnyOrder("A-01", "A-02", "A-04");
+    }
+
+    @Test
+    public void claimSlot_WithConcurrentCheckIns_NeverClaimsTheSameSlotTwice() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<ParkingSlot>>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status -> slotAllocator.claim(1));
+                }));
+            }
+
+            start.countDown();
+            List<String> claimed = new ArrayList<>();
+
+            for (Future<List<ParkingSlot>> future : futures) {
+                future.get(30, TimeUnit.SECONDS).forEach(slot -> claimed.add(slot.getCode()));
+            }
+
+            // 3 AVAILABLE slots for 8 check-ins: each slot once, the other check-ins get nothing
+            assertThat(claimed).containsExactlyInAnyOrder("A-01", "A-02", "A-04");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(slotRepository.countByStatus(ParkingSlot.SlotStatus.AVAILABLE)).isZero();
+    }
+
+    @Test
+    public void claimSlot_WithPooledSlotsOccupiedElsewhere_ClaimsOnlyStillAvailableSlot() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ParkingSlotAllocator otherNode = new ParkingSlotAllocator(slotRepository, transactionManager, clock, 1, 50, 10, 300);
+
+        // node 1 pools A-01, A-02 and A-04, then the first two are occupied behind its back
+        otherNode.refill();
+        transactionTemplate.executeWithoutResult(status -> slotRepository.findAllById(List.of(10L, 20L))
+                .forEach(slot -> slot.setStatus(ParkingSlot.SlotStatus.UNAVAILABLE)));
+
+        // the conditional update rejects the stale entries instead of occupying a slot twice
+        List<ParkingSlot> claimed = transactionTemplate.execute(status -> otherNode.claim(2));
+        assertThat(claimed).extracting(ParkingSlot::getCode).containsExactly("A-04");
+
+        List<ParkingSlot> claimedAgain = transactionTemplate.execute(status -> otherNode.claim(1));
+        assertThat(claimedAgain).isEmpty();
+    }
+
+    private ParkingSlotOccupancyResponseVO getOccupancy() {
+        ParkingSlotOccupancyResponseVO occupancy = webTestClient
+                .get()
+                .uri("/api/v1/parking-slots/occupancy")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "ana@email.com","123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ParkingSlotOccupancyResponseVO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(occupancy).isNotNull();
+        return occupancy;
+    }
 }
@@ -0,0 +1,189 @@
+package com.jonasrosendo.demoparkingapi;
+
+import com.jonasrosendo.demoparkingapi.services.ReceiptGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReceiptGeneratorTest {
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+
+    @Test
+    public void next_WithConcurrentCallers_ReturnUniqueReceipts() throws Exception {
+        ReceiptGenerator receiptGenerator = new ReceiptGenerator(7);
+        Set<String> receipts = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+
+                    for (int j = 0; j < perThread; j++) {
+                        receipts.add(receiptGenerator.next());
+                    }
+
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(receipts).hasSize(threads * perThread);
+    }
+
+    @Test
+    public void next_OnOneNode_ReturnReceiptsInGenerationOrder() {
+        ReceiptGenerator receiptGenerator = new ReceiptGenerator(1);
+        String previous = receiptGenerator.next();
+
+        for (int i = 0; i < 50_000; i++) {
+            String receipt = receiptGenerator.next();
+            assertThat(receipt).isGreaterThan(previous);
+            previous = receipt;
+        }
+    }
+
+    @Test
+    public void next_WithClockGoingBack_ReturnReceiptsInGenerationOrder() {
+        MutableClock clock = new MutableClock(EPOCH.plusSeconds(60));
+        ReceiptGenerator receiptGenerator = new ReceiptGenerator(1, clock);
+
+        String before = receiptGenerator.next();
+        clock.instant = EPOCH.plusSeconds(30);
+        String after = receiptGenerator.next();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(millis(after)).isEqualTo(millis(before));
+    }
+
+    @Test
+    public void next_WithSequenceExhaustedInOneMillisecond_BorrowNextMillisecond() {
+        Instant now = EPOCH.plusSeconds(3600);
+        ReceiptGenerator receiptGenerator = new ReceiptGenerator(5, Clock.fixed(now, ZoneOffset.UTC));
+        List<String> receipts = new ArrayList<>();
+
+        for (int i = 0; i <= 1 << SEQUENCE_BITS; i++) {
+            receipts.add(receiptGenerator.next());
+        }
+
+        String last = receipts.get((1 << SEQUENCE_BITS) - 1);
+        String borrowed = receipts.get(1 << SEQUENCE_BITS);
+
+        assertThat(millis(receipts.get(0))).isEqualTo(3_600_000L);
+        assertThat(sequence(receipts.get(0))).isZero();
+        assertThat(millis(last)).isEqualTo(3_600_000L);
+        assertThat(sequence(last)).isEqualTo((1 << SEQUENCE_BITS) - 1);
+        assertThat(millis(borrowed)).isEqualTo(3_600_001L);
+        assertThat(sequence(borrowed)).isZero();
+        assertThat(node(borrowed)).isEqualTo(5);
+        assertThat(borrowed).isGreaterThan(last);
+        assertThat(receipts).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void next_AtLastMillisecond_ReturnThirteenCharacters() {
+        // the largest timestamp that fits 41 bits, with the largest node id
+        Instant last = EPOCH.plusMillis((1L << 41) - 1);
+        ReceiptGenerator receiptGenerator = new ReceiptGenerator(1023, Clock.fixed(last, ZoneOffset.UTC));
+
+        String receipt = receiptGenerator.next();
+
+        assertThat(receipt).hasSize(13).matches("[0-9A-Z]{13}");
+        assertThat(new ReceiptGenerator(0, Clock.fixed(EPOCH, ZoneOffset.UTC)).next()).hasSize(13);
+    }
+
+    @Test
+    public void next_OnTwoNodesInTheSameMillisecond_ReturnDistinctReceiptsCarryingTheNodeId() {
+        Clock clock = Clock.fixed(EPOCH.plusSeconds(60), ZoneOffset.UTC);
+        ReceiptGenerator first = new ReceiptGenerator(3, clock);
+        ReceiptGenerator second = new ReceiptGenerator(4, clock);
+        List<String> receipts = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            String receipt = first.next();
+            String other = second.next();
+
+            assertThat(node(receipt)).isEqualTo(3);
+            assertThat(node(other)).isEqualTo(4);
+            assertThat(sequence(receipt)).isEqualTo(sequence(other)).isEqualTo(i);
+            receipts.add(receipt);
+            receipts.add(other);
+        }
+
+        assertThat(receipts).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void create_WithNodeIdOutOfRange_ThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new ReceiptGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ReceiptGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long decode(String receipt) {
+        return Long.parseLong(receipt, 36);
+    }
+
+    private static long millis(String receipt) {
+        return decode(receipt) >>> (NODE_BITS + SEQUENCE_BITS);
+    }
+
+    private static long node(String receipt) {
+        return (decode(receipt) >>> SEQUENCE_BITS) & ((1L << NODE_BITS) - 1);
+    }
+
+    private static long sequence(String receipt) {
+        return decode(receipt) & ((1L << SEQUENCE_BITS) - 1);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
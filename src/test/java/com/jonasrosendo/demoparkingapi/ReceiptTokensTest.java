@@ -0,0 +1,84 @@
+package com.jonasrosendo.demoparkingapi;
+
+import com.jonasrosendo.demoparkingapi.configs.TariffProperties;
+import com.jonasrosendo.demoparkingapi.entities.CustomerHasSlot;
+import com.jonasrosendo.demoparkingapi.entities.ParkingSlot;
+import com.jonasrosendo.demoparkingapi.jwt.ReceiptTokens;
+import com.jonasrosendo.demoparkingapi.services.TariffEngine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReceiptTokensTest {
+
+    private final TariffEngine tariffEngine = new TariffEngine(new TariffProperties());
+    private final Clock clock = Clock.system(ZoneId.of("America/Sao_Paulo"));
+
+    @Test
+    public void create_WithoutKeys_ThrowIllegalStateException() {
+        assertThatThrownBy(() -> new ReceiptTokens("", "", false, 7, tariffEngine, clock))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void create_WithOnlyOneKey_ThrowIllegalArgumentException() {
+        String publicKey = encode(Keys.keyPairFor(SignatureAlgorithm.ES256).getPublic().getEncoded());
+
+        assertThatThrownBy(() -> new ReceiptTokens("", publicKey, true, 7, tariffEngine, clock))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void verify_OnAnotherNodeWithTheSameKeys_ReturnReceiptClaims() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String privateKey = encode(keyPair.getPrivate().getEncoded());
+        String publicKey = encode(keyPair.getPublic().getEncoded());
+
+        ReceiptTokens first = new ReceiptTokens(privateKey, publicKey, false, 7, tariffEngine, clock);
+        ReceiptTokens second = new ReceiptTokens(privateKey, publicKey, false, 7, tariffEngine, clock);
+
+        CustomerHasSlot customerHasSlot = new CustomerHasSlot();
+        customerHasSlot.setReceipt("0KZ3Q1F4XW00A");
+        customerHasSlot.setCarPlate("XXX-0000");
+        customerHasSlot.setCheckIn(LocalDateTime.now(clock));
+        customerHasSlot.setParkingSlot(new ParkingSlot());
+        customerHasSlot.getParkingSlot().setCode("A-01");
+
+        assertThat(second.getPublicKey()).isEqualTo(publicKey);
+        Claims claims = second.verify(first.issue(customerHasSlot));
+        assertThat(claims).isNotNull();
+        assertThat(claims.getSubject()).isEqualTo("0KZ3Q1F4XW00A");
+    }
+
+    @Test
+    public void issue_WithClockInAnotherZone_ReturnCheckInOfThatZone() {
+        Clock tokyo = Clock.system(ZoneId.of("Asia/Tokyo"));
+        ReceiptTokens receiptTokens = new ReceiptTokens("", "", true, 7, tariffEngine, tokyo);
+
+        CustomerHasSlot customerHasSlot = new CustomerHasSlot();
+        customerHasSlot.setReceipt("0KZ3Q1F4XW00A");
+        customerHasSlot.setCarPlate("XXX-0000");
+        customerHasSlot.setCheckIn(LocalDateTime.now(tokyo).withNano(0));
+        customerHasSlot.setParkingSlot(new ParkingSlot());
+        customerHasSlot.getParkingSlot().setCode("A-01");
+
+        Claims claims = receiptTokens.verify(receiptTokens.issue(customerHasSlot));
+        assertThat(claims).isNotNull();
+        assertThat(claims.get(ReceiptTokens.CLAIM_CHECK_IN, Long.class))
+                .isEqualTo(customerHasSlot.getCheckIn().atZone(tokyo.getZone()).toEpochSecond());
+    }
+
+    private static String encode(byte[] key) {
+        return Base64.getEncoder().encodeToString(key);
+    }
+}
@@ -0,0 +1,249 @@
+package com.jonasrosendo.demoparkingapi;
+
+import com.jonasrosendo.demoparkingapi.configs.TariffProperties;
+import com.jonasrosendo.demoparkingapi.services.TariffEngine;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TariffEngineTest {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Test
+    public void priceCents_WithDefaultTariff_MatchPreviousFormulaMinuteByMinute() {
+        TariffEngine engine = new TariffEngine(new TariffProperties());
+
+        for (LocalDateTime checkIn : List.of(
+                LocalDateTime.of(2024, 3, 10, 0, 0),
+                LocalDateTime.of(2024, 3, 10, 13, 2, 29),
+                LocalDateTime.of(2024, 3, 10, 23, 59)
+        )) {
+            for (int minutes = 0; minutes <= 20_000; minutes++) {
+                LocalDateTime checkout = checkIn.plusMinutes(minutes);
+
+                assertThat(engine.priceCents(checkIn, checkout))
+                        .as("check-in %s, %d minutes", checkIn, minutes)
+                        .isEqualTo(toCents(previousPrice(checkIn, checkout)));
+            }
+        }
+    }
+
+    @Test
+    public void discountCents_WithDefaultTariff_MatchPreviousFormula() {
+        TariffEngine engine = new TariffEngine(new TariffProperties());
+
+        for (long price = 0; price <= 50_000; price += 25) {
+            for (long numberOfParking = 0; numberOfParking <= 30; numberOfParking++) {
+                assertThat(engine.discountCents(price, numberOfParking))
+                        .as("price %d, %d parkings", price, numberOfParking)
+                        .isEqualTo(toCents(previousDiscount(TariffEngine.toAmount(price), numberOfParking)));
+            }
+        }
+    }
+
+    @Test
+    public void discountCents_WithHalfCentRemainder_RoundHalfEven() {
+        TariffEngine engine = new TariffEngine(new TariffProperties());
+
+        // 30% of 9.25 is 2.775, of 12.75 is 3.825 and of 16.25 is 4.875
+        assertThat(engine.discountCents(925, 10)).isEqualTo(278);
+        assertThat(engine.discountCents(1275, 10)).isEqualTo(382);
+        assertThat(engine.discountCents(1625, 20)).isEqualTo(488);
+        assertThat(engine.discountCents(925, 9)).isZero();
+        assertThat(engine.discountCents(925, 0)).isZero();
+
+        TariffProperties tariff = new TariffProperties();
+        tariff.setLoyaltyEvery(3);
+        tariff.setLoyaltyDiscountPercent(15);
+        TariffEngine fifteenPercent = new TariffEngine(tariff);
+
+        assertThat(fifteenPercent.discountCents(1001, 3)).isEqualTo(150);
+        assertThat(fifteenPercent.discountCents(1010, 6)).isEqualTo(152);
+        assertThat(fifteenPercent.discountCents(1030, 6)).isEqualTo(154);
+        assertThat(fifteenPercent.discountCents(1010, 4)).isZero();
+    }
+
+    @Test
+    public void priceCents_WithBandCrossingMidnight_ChargeIncrementsStartingInsideTheBand() {
+        TariffProperties tariff = new TariffProperties();
+        tariff.setBands(List.of(new TariffProperties.Band(LocalTime.of(22, 0), LocalTime.of(6, 0), 100)));
+        TariffEngine engine = new TariffEngine(tariff);
+
+        // increments from 22:00 to 22:45, all inside the band
+        assertThat(engine.priceCents(21 * 60, 120)).isEqualTo(925 + 4 * 100);
+        // increments from 05:30 to 06:15, the band ends at 06:00
+        assertThat(engine.priceCents(4 * 60 + 30, 120)).isEqualTo(925 + 2 * 100 + 2 * 175);
+        // increments from 23:30 to 00:15, across midnight
+        assertThat(engine.priceCents(22 * 60 + 30, 120)).isEqualTo(925 + 4 * 100);
+        // a whole day from midnight: increments from 01:00 to 05:45 and from 22:00 to 23:45 inside the band
+        assertThat(engine.priceCents(0, MINUTES_PER_DAY)).isEqualTo(925 + 28 * 100 + 64 * 175);
+    }
+
+    @Test
+    public void priceCents_WithDailyCap_CapEveryDayOfTheStay() {
+        TariffProperties tariff = new TariffProperties();
+        tariff.setDailyCapCents(6000);
+        TariffEngine engine = new TariffEngine(tariff);
+
+        assertThat(engine.priceCents(0, 3 * MINUTES_PER_DAY)).isEqualTo(3 * 6000);
+        // one minute into the fourth day starts one more increment
+        assertThat(engine.priceCents(0, 3 * MINUTES_PER_DAY + 1)).isEqualTo(3 * 6000 + 175);
+        // 2h on the first day is under the cap
+        assertThat(engine.priceCents(0, 120)).isEqualTo(925 + 4 * 175);
+
+        tariff.setDailyCapCents(800);
+        TariffEngine lowCap = new TariffEngine(tariff);
+
+        assertThat(lowCap.priceCents(0, 10)).isEqualTo(500);
+        assertThat(lowCap.priceCents(0, 30)).isEqualTo(800);
+        assertThat(lowCap.priceCents(0, 2 * MINUTES_PER_DAY)).isEqualTo(2 * 800);
+    }
+
+    @Test
+    public void priceCents_WithRandomSchedules_MatchIncrementByIncrementReference() {
+        Random random = new Random(42);
+        int[] incrementMinutes = {1, 5, 10, 15, 30, 60, 90};
+
+        for (int schedule = 0; schedule < 40; schedule++) {
+            TariffProperties tariff = new TariffProperties();
+            List<TariffProperties.Block> blocks = new ArrayList<>();
+            int blockMinutes = 0;
+
+            for (int i = 0, count = 1 + random.nextInt(3); i < count; i++) {
+                blockMinutes += 1 + random.nextInt(120);
+                blocks.add(new TariffProperties.Block(blockMinutes, 100 + random.nextInt(2000)));
+            }
+
+            List<TariffProperties.Band> bands = new ArrayList<>();
+
+            for (int i = 0, count = random.nextInt(3); i < count; i++) {
+                bands.add(new TariffProperties.Band(
+                        LocalTime.of(random.nextInt(24), random.nextInt(60)),
+                        LocalTime.of(random.nextInt(24), random.nextInt(60)),
+                        random.nextInt(500)
+                ));
+            }
+
+            tariff.setBlocks(blocks);
+            tariff.setIncrementMinutes(incrementMinutes[random.nextInt(incrementMinutes.length)]);
+            tariff.setIncrementCents(random.nextInt(500));
+            tariff.setBands(bands);
+            tariff.setDailyCapCents(random.nextBoolean() ? 0 : 1000 + random.nextInt(20_000));
+            TariffEngine engine = new TariffEngine(tariff);
+
+            for (int stay = 0; stay < 500; stay++) {
+                int checkIn = random.nextInt(MINUTES_PER_DAY);
+                long minutes = random.nextInt(5 * MINUTES_PER_DAY);
+
+                assertThat(engine.priceCents(checkIn, minutes))
+                        .as("schedule %d, check-in minute %d, %d minutes", schedule, checkIn, minutes)
+                        .isEqualTo(referencePriceCents(tariff, checkIn, minutes));
+            }
+        }
+    }
+
+    @Test
+    public void create_WithInvalidSchedule_ThrowIllegalArgumentException() {
+        TariffProperties noBlocks = new TariffProperties();
+        noBlocks.setBlocks(List.of());
+        TariffProperties unsortedBlocks = new TariffProperties();
+        unsortedBlocks.setBlocks(List.of(new TariffProperties.Block(60, 925), new TariffProperties.Block(15, 500)));
+        TariffProperties increment = new TariffProperties();
+        increment.setIncrementMinutes(7);
+        TariffProperties loyalty = new TariffProperties();
+        loyalty.setLoyaltyEvery(0);
+
+        for (TariffProperties tariff : List.of(noBlocks, unsortedBlocks, increment, loyalty)) {
+            assertThatThrownBy(() -> new TariffEngine(tariff)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    // straightforward reading of TariffProperties: every increment priced by the minute of the day it starts at
+    private static long referencePriceCents(TariffProperties tariff, int checkInMinuteOfDay, long minutes) {
+        List<TariffProperties.Block> blocks = tariff.getBlocks();
+        TariffProperties.Block last = blocks.get(blocks.size() - 1);
+        long cap = tariff.getDailyCapCents();
+
+        if (minutes <= last.getMinutes()) {
+            long cents = blocks.stream().filter(block -> minutes <= block.getMinutes()).findFirst().orElseThrow().getCents();
+            return cap > 0 ? Math.min(cents, cap) : cents;
+        }
+
+        long[] dayCents = new long[(int) ((minutes + MINUTES_PER_DAY - 1) / MINUTES_PER_DAY)];
+        dayCents[0] = last.getCents();
+
+        for (long start = last.getMinutes(); start < minutes; start += tariff.getIncrementMinutes()) {
+            int minuteOfDay = (int) ((checkInMinuteOfDay + start) % MINUTES_PER_DAY);
+            long cents = tariff.getIncrementCents();
+
+            for (TariffProperties.Band band : tariff.getBands()) {
+                if (isInside(band, minuteOfDay)) {
+                    cents = band.getCents();
+                }
+            }
+
+            dayCents[(int) (start / MINUTES_PER_DAY)] += cents;
+        }
+
+        long total = 0;
+
+        for (long cents : dayCents) {
+            total += cap > 0 ? Math.min(cents, cap) : cents;
+        }
+
+        return total;
+    }
+
+    private static boolean isInside(TariffProperties.Band band, int minuteOfDay) {
+        int from = band.getFrom().toSecondOfDay() / 60;
+        int to = band.getTo().toSecondOfDay() / 60;
+
+        if (from < to) {
+            return minuteOfDay >= from && minuteOfDay < to;
+        }
+
+        // wraps past midnight, from == to is the whole day
+        return minuteOfDay >= from || minuteOfDay < to;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    // ParkingLotsUtils.calculatePrice before the tariff engine
+    private static BigDecimal previousPrice(LocalDateTime checkIn, LocalDateTime checkout) {
+        long minutes = checkIn.until(checkout, ChronoUnit.MINUTES);
+        double price;
+
+        if (minutes <= 15) {
+            price = 5.00;
+        } else if (minutes <= 60) {
+            price = 9.25;
+        } else {
+            long additionalMinutes = minutes - 60;
+            double factor = Math.ceil(additionalMinutes / 15.0);
+            price = 9.25 + (1.75 * factor);
+        }
+
+        return new BigDecimal(price).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    // ParkingLotsUtils.calculateDiscount before the tariff engine
+    private static BigDecimal previousDiscount(BigDecimal price, long numberOfParking) {
+        BigDecimal discount = ((numberOfParking > 0 && numberOfParking % 10 == 0))
+                ? price.multiply(BigDecimal.valueOf(0.30))
+                : BigDecimal.valueOf(0.00);
+        return discount.setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
@@ -1,17 +1,26 @@
 package com.jonasrosendo.demoparkingapi;
 
 import com.jonasrosendo.demoparkingapi.exceptions.ErrorMessage;
+import com.jonasrosendo.demoparkingapi.jwt.JwtTokenRevocations;
+import com.jonasrosendo.demoparkingapi.jwt.JwtUtils;
 import com.jonasrosendo.demoparkingapi.web.dtos.user.UserCreateDTO;
 import com.jonasrosendo.demoparkingapi.web.dtos.user.UserPasswordDTO;
+import com.jonasrosendo.demoparkingapi.web.vos.CursorPageResponseVO;
 import com.jonasrosendo.demoparkingapi.web.vos.user.UserResponseVO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -23,6 +32,12 @@ public class UserTest {
     @Autowired
     WebTestClient webTestClient;
 
+    @Autowired
+    JwtTokenRevocations tokenRevocations;
+
+    @Autowired
+    Clock clock;
+
     private static final String USER_PASSWORD = "123456";
     private static final String CUSTOMER_PASSWORD_ENCRYPTED = "$2a$12$fPHqdCZBH2oRDTlXs0.tU.voMwG9by.6d3vFeMhpUGjUldjciVVmy";
 
@@ -167,6 +182,54 @@ public class UserTest {
         );
     }
 
+    @Test
+    public void updatePassword_dataValid_RevokeTokensIssuedBefore() {
+        // iat has second precision: a token issued seconds before the change instead of waiting for the clock. No
+        // other test changes bob's password, so nothing revoked his tokens before
+        String token = JwtUtils.createToken(102L, "bob@email.com", "CUSTOMER",
+                Date.from(Instant.now().minusSeconds(10))).getToken();
+        Consumer<HttpHeaders> oldToken = headers -> headers.add(HttpHeaders.AUTHORIZATION, JwtUtils.JWT_BEARER + token);
+
+        webTestClient
+                .patch()
+                .uri("/api/v1/users/102/password")
+                .headers(oldToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserPasswordDTO(USER_PASSWORD, "101010", "101010"))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient
+                .get()
+                .uri("/api/v1/users/102")
+                .headers(oldToken)
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient
+                .get()
+                .uri("/api/v1/users/102")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "bob@email.com", "101010"))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void isRevoked_withTokensIssuedAroundTheChange_revokeOnlyTokensIssuedSecondsBefore() {
+        // a user id no fixture has, revoked outside a transaction so it applies right away
+        Long userId = 999L;
+        LocalDateTime changedAt = LocalDateTime.of(2024, 3, 10, 13, 2, 29, 500_000_000);
+        Instant changed = changedAt.atZone(clock.getZone()).toInstant();
+
+        tokenRevocations.revoke(userId, changedAt);
+
+        assertThat(tokenRevocations.isRevoked(userId, Date.from(changed.minusSeconds(1)))).isTrue();
+        assertThat(tokenRevocations.isRevoked(userId, Date.from(changed.minusMillis(500)))).isFalse();
+        assertThat(tokenRevocations.isRevoked(userId, Date.from(changed.plusSeconds(1)))).isFalse();
+        assertThat(tokenRevocations.isRevoked(userId, null)).isTrue();
+        assertThat(tokenRevocations.isRevoked(998L, Date.from(changed.minusSeconds(1)))).isFalse();
+    }
+
     @Test
     public void updatePassword_dataInvalid_ReturnErrorBody() {
         String adminUsername = "jonas@email.com";
@@ -293,6 +356,47 @@ public class UserTest {
         assertThat(response.size()).isEqualTo(3);
     }
 
+    @Test
+    public void findAllUsers_withUsersWithinListMaxSize_returnAllUsersByIdWith200HttpStatus() {
+        createUser("toby@email.com", USER_PASSWORD);
+
+        List<UserResponseVO> response = findAllUsers("jonas@email.com");
+
+        assertThat(response).isNotNull();
+        assertThat(response).hasSize(4);
+        assertThat(response).extracting(UserResponseVO::getId).isSorted();
+    }
+
+    @Test
+    @Sql(scripts = {"/sql/users/users-insert.sql", "/sql/users/users-many-insert.sql"},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "/sql/users/users-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findAllUsers_withMoreUsersThanListMaxSize_returnFirstKeysetPageWith200HttpStatus() {
+        CursorPageResponseVO response = webTestClient
+                .get()
+                .uri("/api/v1/users")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", USER_PASSWORD))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CursorPageResponseVO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getContent()).hasSize(1000);
+        assertThat(response.getNextCursor()).isNotNull();
+
+        webTestClient
+                .get()
+                .uri("/api/v1/users?cursor={cursor}", response.getNextCursor())
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", USER_PASSWORD))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("content[0].username").isEqualTo("user998@email.com")
+                .jsonPath("next_cursor").doesNotExist();
+    }
+
     @Test
     public void findAllUsers_checkAllUsers_returnErrorResponseIfUserIsNotAdmin() {
 
@@ -302,6 +406,114 @@ public class UserTest {
         assertThat(response.getStatus()).isEqualTo(403);
     }
 
+    @Test
+    public void findAllUsers_withCursor_returnKeysetPagesWith200HttpStatus() {
+        CursorPageResponseVO response = webTestClient
+                .get()
+                .uri("/api/v1/users?size=2&cursor=")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", USER_PASSWORD))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CursorPageResponseVO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getContent().size()).isEqualTo(2);
+        assertThat(response.getNextCursor()).isNotNull();
+
+        webTestClient
+                .get()
+                .uri("/api/v1/users?size=2&cursor={cursor}", response.getNextCursor())
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", USER_PASSWORD))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("content[0].username").isEqualTo("bob@email.com")
+                .jsonPath("content[0].role").isEqualTo("CUSTOMER")
+                .jsonPath("next_cursor").doesNotExist();
+    }
+
+    @Test
+    public void exportAllUsers_checkAllUsers_returnNdjsonWith200HttpStatusIfUserIsAdmin() {
+        String response = webTestClient
+                .get()
+                .uri("/api/v1/users/export")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", USER_PASSWORD))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response).isNotNull();
+        String[] lines = response.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("{\"id\":100,\"username\":\"jonas@email.com\",\"role\":\"ADMIN\"}");
+    }
+
+    @Test
+    public void exportAllUsers_checkAllUsers_returnErrorResponseIfUserIsNotAdmin() {
+        webTestClient
+                .get()
+                .uri("/api/v1/users/export")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "ana@email.com", USER_PASSWORD))
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("status").isEqualTo(403);
+    }
+
+    @Test
+    public void findAllUsers_withTamperedToken_returnUnauthorized401HttpStatus() {
+        webTestClient
+                .get()
+                .uri("/api/v1/users")
+                .headers(JwtAuthentication.getHeaderAuthorization(webTestClient, "jonas@email.com", USER_PASSWORD)
+                        .andThen(headers -> headers.set(
+                                HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION) + "x"
+                        )))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void createUser_withTokenWithoutId_ignoreTokenAndReturnCreatedUserWith201HttpStatus() {
+        assertTokenIgnored(JwtUtils.createToken(null, "jonas@email.com", "ADMIN").getToken());
+    }
+
+    @Test
+    public void findAllUsers_withTokenWithoutId_returnUnauthorized401HttpStatus() {
+        webTestClient
+                .get()
+                .uri("/api/v1/users")
+                .header(HttpHeaders.AUTHORIZATION, JwtUtils.JWT_BEARER + JwtUtils.createToken(null, "jonas@email.com", "ADMIN").getToken())
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void createUser_withTokenWithoutRole_ignoreTokenAndReturnCreatedUserWith201HttpStatus() {
+        assertTokenIgnored(JwtUtils.createToken(100L, "jonas@email.com", null).getToken());
+    }
+
+    @Test
+    public void createUser_withTokenWithUnknownRole_ignoreTokenAndReturnCreatedUserWith201HttpStatus() {
+        assertTokenIgnored(JwtUtils.createToken(100L, "jonas@email.com", "ROOT").getToken());
+    }
+
+    // the token stays unauthenticated instead of failing the request: a public endpoint still answers
+    private void assertTokenIgnored(String token) {
+        webTestClient
+                .post()
+                .uri("/api/v1/users")
+                .header(HttpHeaders.AUTHORIZATION, JwtUtils.JWT_BEARER + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserCreateDTO("tody@email.com", USER_PASSWORD))
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
     private ErrorMessage findNonexistentOrForbiddenUser(Long invalidId, String username, int expectedHttpStatus) {
         return webTestClient
                 .get()
@@ -0,0 +1,2 @@
+insert into customers_has_slots (id, receipt, car_plate, car_brand, car_model, car_color, check_in, checkout, price, discount, customer_id, parking_slot_id) values
+    (400, '20231120-090000', 'SIE-2020', 'FIAT', 'SIENA', 'AZUL', '2023-11-20 09:00:00', '2023-11-20 09:10:00', 5.00, 0.00, 20, 400);
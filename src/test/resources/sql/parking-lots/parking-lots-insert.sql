@@ -15,7 +15,7 @@ insert into parking_slots (id, code, status) values
     (400, 'A-04', 'AVAILABLE'),
     (500, 'A-05', 'AVAILABLE');
 
-insert into customers_has_slots (receipt, car_plate, car_brand, car_model, car_color, check_in, customer_id, parking_slot_id) values
-    ('20231122-130122', 'FIT-2020', 'FIAT', 'PALIO', 'VERDE', '2023-11-22 13:02:29', 10, 100),
-    ('20231122-130322', 'SIE-2020', 'FIAT', 'SIENA', 'AZUL', '2023-11-22 13:05:29', 20, 200),
-    ('20231122-130522', 'FIT-2020', 'FIAT', 'PALIO', 'BRANCO', '2023-11-22 13:07:29', 10, 300);
+insert into customers_has_slots (id, receipt, car_plate, car_brand, car_model, car_color, check_in, customer_id, parking_slot_id) values
+    (100, '20231122-130122', 'FIT-2020', 'FIAT', 'PALIO', 'VERDE', '2023-11-22 13:02:29', 10, 100),
+    (200, '20231122-130322', 'SIE-2020', 'FIAT', 'SIENA', 'AZUL', '2023-11-22 13:05:29', 20, 200),
+    (300, '20231122-130522', 'FIT-2020', 'FIAT', 'PALIO', 'BRANCO', '2023-11-22 13:07:29', 10, 300);
@@ -0,0 +1,3 @@
+insert into users (id, username, password, role)
+ select 1000 + x, 'user' || x || '@email.com', '$2a$12$fPHqdCZBH2oRDTlXs0.tU.voMwG9by.6d3vFeMhpUGjUldjciVVmy', 'ROLE_CUSTOMER'
+ from system_range(1, 998);